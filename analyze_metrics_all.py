@@ -31,9 +31,11 @@ is_time = (df["metric"]=="time_ns")
 df.loc[is_time, "metric"] = "time_ms"
 df.loc[is_time, "value"]  = df.loc[is_time, "value"] / 1e6
 
-has_mem = (df["metric"]=="memory_bytes").any()
+# footprint_bytes (contado pela tabela) substitui o antigo memory_bytes (delta do heap)
+mem_metric = "footprint_bytes" if (df["metric"]=="footprint_bytes").any() else "memory_bytes"
+has_mem = (df["metric"]==mem_metric).any()
 if has_mem:
-    mem_mask = (df["metric"]=="memory_bytes")
+    mem_mask = (df["metric"]==mem_metric)
     df.loc[mem_mask, "metric"] = "memory_mb"
     df.loc[mem_mask, "value"]  = df.loc[mem_mask, "value"] / (1024*1024)
 
@@ -0,0 +1,108 @@
+package hash;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo por busca (ns/op) de sondagem linear com 10M chaves, comparando o despacho
+ * antigo (IntUnaryOperator, com o perfil poluído pelas três lambdas como no
+ * ExperimentRunner) com o HashStrategy usado hoje pelas tabelas.
+ * As duas variantes sondam exatamente o mesmo vetor; só muda a chamada da hash.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HashDispatchBenchmark {
+
+    private static final int N = 10_000_000;
+
+    @Param({"mod", "mul", "mix"})
+    public String hashName;
+
+    @Param({"20000027"})
+    public int m;
+
+    private int[] data;
+    private int[] slots;
+    private HashStrategy strategy;
+    private IntUnaryOperator lambda;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = ExperimentRunner.generateDataset(N, ExperimentRunner.SEED);
+        strategy = HashStrategy.fromName(hashName);
+        lambda = strategy == HashStrategy.MOD ? HashFunctions.modPrime(m)
+               : strategy == HashStrategy.MUL ? HashFunctions.multiplicacao(m)
+               : HashFunctions.mixMod(m);
+
+        slots = new int[m];
+        Arrays.fill(slots, -1);
+        for (int x : data) {
+            int pos = strategy.index(x, m);
+            while (slots[pos] != -1 && slots[pos] != x) pos = (pos + 1) % m;
+            slots[pos] = x;
+        }
+
+        // mesmo padrão do ExperimentRunner: as três lambdas passam pelo mesmo call site
+        IntUnaryOperator[] all = {
+                HashFunctions.modPrime(m), HashFunctions.multiplicacao(m), HashFunctions.mixMod(m)
+        };
+        for (int round = 0; round < 20; round++) {
+            for (IntUnaryOperator op : all) {
+                for (int i = 0; i < 10_000; i++) containsLambda(slots, m, op, data[i]);
+            }
+        }
+    }
+
+    private static boolean containsLambda(int[] slots, int m, IntUnaryOperator h, int key) {
+        int pos = h.applyAsInt(key);
+        while (slots[pos] != -1) {
+            if (slots[pos] == key) return true;
+            pos = (pos + 1) % m;
+        }
+        return false;
+    }
+
+    private static boolean containsStrategy(int[] slots, int m, HashStrategy h, int key) {
+        int pos = h.index(key, m);
+        while (slots[pos] != -1) {
+            if (slots[pos] == key) return true;
+            pos = (pos + 1) % m;
+        }
+        return false;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int lambda() {
+        int found = 0;
+        for (int x : data) if (containsLambda(slots, m, lambda, x)) found++;
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int strategy() {
+        int found = 0;
+        for (int x : data) if (containsStrategy(slots, m, strategy, x)) found++;
+        return found;
+    }
+}
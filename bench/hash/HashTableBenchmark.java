@@ -0,0 +1,195 @@
+package hash;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH das fases insert/search do ExperimentRunner.
+ * Cada invocação insere (ou busca) o dataset inteiro, então o score é o tempo
+ * total da fase em ns — mesma semântica da métrica time_ns do CSV.
+ * searchBatch busca o mesmo dataset com containsBatch, em lotes de batch chaves,
+ * para comparar com o laço escalar de search.
+ * cuckoo é um conjunto: as chaves repetidas do dataset entram uma vez só, mas
+ * continuam sendo achadas, então search conta n do mesmo jeito.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class HashTableBenchmark {
+    private static final int CUCKOO_WAYS = 4; // padrão do ExperimentRunner (--cuckoo-ways)
+
+    @Param({"chaining", "linear", "doublehash", "robinhood", "swiss", "cuckoo"})
+    public String tableType;
+
+    @Param({"mod", "mul", "mix"})
+    public String hashName;
+
+    @Param({"200003"})
+    public int m;
+
+    @Param({"100000"})
+    public int n;
+
+    @Param({"1024"})
+    public int batch;
+
+    private int[] data;
+    private HashStrategy h;
+
+    // tabela vazia, recriada a cada iteração (fase insert)
+    private HashTableChaining emptyChain;
+    private HashTableLinearProbing emptyLin;
+    private HashTableDoubleHashing emptyDouble;
+    private HashTableRobinHood emptyRobin;
+    private HashTableSwiss emptySwiss;
+    private HashTableCuckoo emptyCuckoo;
+
+    // tabela já preenchida, montada uma vez por trial (fase search)
+    private HashTableChaining fullChain;
+    private HashTableLinearProbing fullLin;
+    private HashTableDoubleHashing fullDouble;
+    private HashTableRobinHood fullRobin;
+    private HashTableSwiss fullSwiss;
+    private HashTableCuckoo fullCuckoo;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        // chaining, swiss e cuckoo crescem; as outras têm m fixo
+        boolean grows = tableType.equals("chaining") || tableType.equals("swiss") || tableType.equals("cuckoo");
+        if (!grows && n >= m) {
+            throw new IllegalStateException("Fator de carga >= 1 para " + tableType + ": n=" + n + ", m=" + m);
+        }
+        data = ExperimentRunner.generateDataset(n, ExperimentRunner.SEED);
+        h = HashStrategy.fromName(hashName);
+
+        switch (tableType) {
+            case "chaining":
+                fullChain = new HashTableChaining(m, h, n);
+                for (int x : data) fullChain.insert(x);
+                break;
+            case "linear":
+                fullLin = new HashTableLinearProbing(m, h);
+                for (int x : data) fullLin.insert(x);
+                break;
+            case "doublehash":
+                fullDouble = new HashTableDoubleHashing(m, h);
+                for (int x : data) fullDouble.insert(x);
+                break;
+            case "robinhood":
+                fullRobin = new HashTableRobinHood(m, h);
+                for (int x : data) fullRobin.insert(x);
+                break;
+            case "swiss":
+                fullSwiss = new HashTableSwiss(m, h);
+                for (int x : data) fullSwiss.insert(x);
+                break;
+            case "cuckoo":
+                fullCuckoo = new HashTableCuckoo(m, h, CUCKOO_WAYS);
+                for (int x : data) fullCuckoo.insert(x);
+                break;
+            default:
+                throw new IllegalArgumentException("Tabela desconhecida: " + tableType);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        switch (tableType) {
+            case "chaining":   emptyChain = new HashTableChaining(m, h, n); break;
+            case "linear":     emptyLin = new HashTableLinearProbing(m, h); break;
+            case "doublehash": emptyDouble = new HashTableDoubleHashing(m, h); break;
+            case "robinhood":  emptyRobin = new HashTableRobinHood(m, h); break;
+            case "swiss":      emptySwiss = new HashTableSwiss(m, h); break;
+            case "cuckoo":     emptyCuckoo = new HashTableCuckoo(m, h, CUCKOO_WAYS); break;
+        }
+    }
+
+    @Benchmark
+    public Object insert() {
+        switch (tableType) {
+            case "chaining":
+                for (int x : data) emptyChain.insert(x);
+                return emptyChain;
+            case "linear":
+                for (int x : data) emptyLin.insert(x);
+                return emptyLin;
+            case "robinhood":
+                for (int x : data) emptyRobin.insert(x);
+                return emptyRobin;
+            case "swiss":
+                for (int x : data) emptySwiss.insert(x);
+                return emptySwiss;
+            case "cuckoo":
+                for (int x : data) emptyCuckoo.insert(x);
+                return emptyCuckoo;
+            default:
+                for (int x : data) emptyDouble.insert(x);
+                return emptyDouble;
+        }
+    }
+
+    @Benchmark
+    public int search() {
+        int found = 0;
+        switch (tableType) {
+            case "chaining":
+                for (int x : data) if (fullChain.contains(x)) found++;
+                break;
+            case "linear":
+                for (int x : data) if (fullLin.contains(x)) found++;
+                break;
+            case "robinhood":
+                for (int x : data) if (fullRobin.contains(x)) found++;
+                break;
+            case "swiss":
+                for (int x : data) if (fullSwiss.contains(x)) found++;
+                break;
+            case "cuckoo":
+                for (int x : data) if (fullCuckoo.contains(x)) found++;
+                break;
+            default:
+                for (int x : data) if (fullDouble.contains(x)) found++;
+                break;
+        }
+        if (found != n) throw new AssertionError("Falha na busca (" + tableType + ")!");
+        return found;
+    }
+
+    @Benchmark
+    public int searchBatch() {
+        int[] keys = new int[batch];
+        boolean[] out = new boolean[batch];
+        int found = 0;
+        for (int from = 0; from < n; from += batch) {
+            int len = Math.min(batch, n - from);
+            if (len < batch) { keys = new int[len]; out = new boolean[len]; }
+            System.arraycopy(data, from, keys, 0, len);
+            switch (tableType) {
+                case "chaining":  fullChain.containsBatch(keys, out); break;
+                case "linear":    fullLin.containsBatch(keys, out); break;
+                case "robinhood": fullRobin.containsBatch(keys, out); break;
+                case "swiss":     fullSwiss.containsBatch(keys, out); break;
+                case "cuckoo":    fullCuckoo.containsBatch(keys, out); break;
+                default:          fullDouble.containsBatch(keys, out); break;
+            }
+            for (int i = 0; i < len; i++) if (out[i]) found++;
+        }
+        if (found != n) throw new AssertionError("Falha na busca em lote (" + tableType + ")!");
+        return found;
+    }
+}
@@ -0,0 +1,156 @@
+package hash;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Roda o HashTableBenchmark sobre a mesma varredura do ExperimentRunner e grava
+ * os resultados no esquema run_id,table_type,table_m,hash_name,data_n,phase,metric,value,
+ * para que o analyze_metrics_all.py continue funcionando.
+ */
+public class JmhRunner {
+
+    private static int[] TABLE_SIZES = { 200_003, 2_000_003, 20_000_027 };
+    private static int[] DATA_SIZES  = { 100_000, 1_000_000, 10_000_000 };
+    private static String[] HASHES   = { "mod", "mul", "mix" };
+    private static int WARMUP = 5;
+    private static int ITERATIONS = 10;
+    private static int FORKS = 2;
+    private static String OUT = "results/metrics_jmh.csv";
+    private static String BATCH = "1024";
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        // Flags (mesmas do ExperimentRunner quando fazem sentido):
+        // --quick                   => DATA_SIZES = {100_000}, TABLE_SIZES = {200_003}
+        // --tables=chain,lin,double,robin,swiss,cuckoo
+        // --hashes=mod,mul,mix
+        // --msizes=200003,2000003,20000027
+        // --nsizes=100000,1000000
+        // --batch=1024              => tamanho do lote de searchBatch (containsBatch)
+        // --warmup=5 --iterations=10 --forks=2
+        // --out=results/metrics_jmh.csv
+        boolean runChain = true, runLin = true, runDouble = true, runRobin = true, runSwiss = true, runCuckoo = true;
+
+        for (String a : args) {
+            if (a.equalsIgnoreCase("--quick")) {
+                DATA_SIZES = new int[]{100_000};
+                TABLE_SIZES = new int[]{200_003};
+            } else if (a.startsWith("--tables=")) {
+                String v = a.substring("--tables=".length()).toLowerCase();
+                runChain  = v.contains("chain");
+                runLin    = v.contains("lin");
+                runDouble = v.contains("double");
+                runRobin  = v.contains("robin");
+                runSwiss  = v.contains("swiss");
+                runCuckoo = v.contains("cuckoo");
+            } else if (a.startsWith("--hashes=")) {
+                HASHES = a.substring("--hashes=".length()).split(",");
+            } else if (a.startsWith("--msizes=")) {
+                TABLE_SIZES = parseInts(a.substring("--msizes=".length()));
+            } else if (a.startsWith("--nsizes=")) {
+                DATA_SIZES = parseInts(a.substring("--nsizes=".length()));
+            } else if (a.startsWith("--batch=")) {
+                BATCH = a.substring("--batch=".length()).trim();
+            } else if (a.startsWith("--warmup=")) {
+                WARMUP = Integer.parseInt(a.substring("--warmup=".length()).trim());
+            } else if (a.startsWith("--iterations=")) {
+                ITERATIONS = Math.max(1, Integer.parseInt(a.substring("--iterations=".length()).trim()));
+            } else if (a.startsWith("--forks=")) {
+                FORKS = Math.max(1, Integer.parseInt(a.substring("--forks=".length()).trim()));
+            } else if (a.startsWith("--out=")) {
+                OUT = a.substring("--out=".length());
+            }
+        }
+
+        try (FileWriter fw = new FileWriter(OUT)) {
+            fw.write("run_id,table_type,table_m,hash_name,data_n,phase,metric,value\n");
+
+            int runId = 0;
+            for (int m : TABLE_SIZES) {
+                if (runChain) {
+                    for (String hn : HASHES) run(fw, runId++, "chaining", m, hn, hn);
+                }
+                if (runLin) {
+                    for (String hn : HASHES) run(fw, runId++, "linear", m, hn, hn);
+                }
+                if (runDouble) {
+                    for (String hn : HASHES) run(fw, runId++, "doublehash", m, hn, hn + "+dh");
+                }
+                if (runRobin) {
+                    for (String hn : HASHES) run(fw, runId++, "robinhood", m, hn, hn);
+                }
+                if (runSwiss) {
+                    for (String hn : HASHES) run(fw, runId++, "swiss", m, hn, hn);
+                }
+                if (runCuckoo) {
+                    for (String hn : HASHES) run(fw, runId++, "cuckoo", m, hn, hn);
+                }
+            }
+        }
+    }
+
+    private static void run(FileWriter fw, int runId, String tableType, int m, String hashName,
+                            String csvHashName) throws IOException, RunnerException {
+        List<String> ns = new ArrayList<>();
+        for (int n : DATA_SIZES) {
+            // inviável com m fixo (fator de carga >= 1); chaining, swiss e cuckoo crescem
+            boolean grows = tableType.equals("chaining") || tableType.equals("swiss") || tableType.equals("cuckoo");
+            if (!grows && n >= m) continue;
+            ns.add(Integer.toString(n));
+        }
+        if (ns.isEmpty()) return;
+
+        ChainedOptionsBuilder opts = new OptionsBuilder()
+                .include(HashTableBenchmark.class.getName() + "\\.")
+                .param("tableType", tableType)
+                .param("hashName", hashName)
+                .param("m", Integer.toString(m))
+                .param("n", ns.toArray(new String[0]))
+                .param("batch", BATCH)
+                .warmupIterations(WARMUP)
+                .measurementIterations(ITERATIONS)
+                .forks(FORKS);
+
+        // table_type do CSV como no ExperimentRunner; os forks sempre carregam
+        // jdk.incubator.vector (ver HashTableBenchmark), então a swiss roda com o matcher vector
+        String csvType = tableType.equals("swiss") ? "swiss_vector" : tableType;
+        Collection<RunResult> results = new Runner(opts.build()).run();
+        for (RunResult r : results) {
+            String label = r.getParams().getBenchmark();
+            String phase = label.substring(label.lastIndexOf('.') + 1);
+            int n = Integer.parseInt(r.getParams().getParam("n"));
+            double score = r.getPrimaryResult().getScore();
+            double err = r.getPrimaryResult().getScoreError();
+            double sd = r.getPrimaryResult().getStatistics().getStandardDeviation();
+
+            log(fw, runId, csvType, m, csvHashName, n, phase, "time_ns", Long.toString(Math.round(score)));
+            if (!Double.isNaN(err)) {
+                log(fw, runId, csvType, m, csvHashName, n, phase, "time_ns_error", Long.toString(Math.round(err)));
+            }
+            log(fw, runId, csvType, m, csvHashName, n, phase, "time_ns_stdev", Long.toString(Math.round(sd)));
+        }
+        fw.flush();
+    }
+
+    private static void log(FileWriter fw, int runId, String tableType, int m, String hashName, int n,
+                            String phase, String metric, String value) throws IOException {
+        fw.write(String.format("%d,%s,%d,%s,%d,%s,%s,%s\n",
+                runId, tableType, m, hashName, n, phase, metric, value));
+    }
+
+    private static int[] parseInts(String v) {
+        String[] parts = v.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Integer.parseInt(parts[i].trim());
+        return out;
+    }
+}
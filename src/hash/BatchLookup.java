@@ -0,0 +1,13 @@
+package hash;
+
+/**
+ * Constantes dos containsBatch das tabelas, compartilhadas para que todas meçam
+ * com o mesmo lote. GROUP é quantas chaves de um lote têm as posições calculadas
+ * antes de ler a tabela e as sondagens avançadas juntas, uma rodada por vez: o
+ * bastante para sobrepor as faltas de cache, com vetores auxiliares pequenos.
+ */
+final class BatchLookup {
+    static final int GROUP = 16;
+
+    private BatchLookup() {}
+}
@@ -0,0 +1,82 @@
+package hash;
+
+import java.util.stream.IntStream;
+
+/**
+ * Espalhamento estilo radix usado pelos bulkInsert: separa as chaves por faixa
+ * contígua de buckets (faixa r = buckets [r*m/regions, (r+1)*m/regions)), de modo
+ * que cada faixa possa ser montada por uma tarefa do ForkJoinPool sem tocar no
+ * que as outras escrevem.
+ *
+ * O espalhamento é estável: dentro de uma faixa as chaves ficam na ordem de
+ * entrada, então cada faixa vê a mesma sequência de inserções da montagem
+ * sequencial.
+ */
+final class BulkPartition {
+    final int regions;
+    final int[] keys;    // chaves agrupadas por faixa
+    final int[] buckets; // bucket de cada chave de keys[]
+    final int[] start;   // faixa r ocupa [start[r], start[r+1])
+
+    private BulkPartition(int regions, int n) {
+        this.regions = regions;
+        this.keys = new int[n];
+        this.buckets = new int[n];
+        this.start = new int[regions + 1];
+    }
+
+    // Quantas faixas usar: algumas por núcleo, para equilibrar buckets mais cheios
+    static int regionsFor(int m) {
+        int p = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(m, p * 4));
+    }
+
+    static int regionOf(int b, int m, int regions) {
+        return (int) ((long) b * regions / m);
+    }
+
+    static BulkPartition of(int[] data, int m, HashStrategy h, int regions) {
+        int n = data.length;
+        BulkPartition p = new BulkPartition(regions, n);
+        int chunks = regions;
+        int chunkLen = (n + chunks - 1) / chunks;
+
+        // 1) bucket de cada chave e histograma por bloco de entrada
+        int[] home = new int[n];
+        int[][] count = new int[chunks][regions];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = Math.min(n, c * chunkLen), to = Math.min(n, from + chunkLen);
+            int[] cnt = count[c];
+            for (int i = from; i < to; i++) {
+                int b = h.index(data[i], m);
+                home[i] = b;
+                cnt[regionOf(b, m, regions)]++;
+            }
+        });
+
+        // 2) deslocamentos: faixa por faixa, bloco por bloco (mantém a ordem de entrada)
+        int pos = 0;
+        for (int r = 0; r < regions; r++) {
+            p.start[r] = pos;
+            for (int c = 0; c < chunks; c++) {
+                int k = count[c][r];
+                count[c][r] = pos;
+                pos += k;
+            }
+        }
+        p.start[regions] = pos;
+
+        // 3) espalhamento
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = Math.min(n, c * chunkLen), to = Math.min(n, from + chunkLen);
+            int[] off = count[c];
+            for (int i = from; i < to; i++) {
+                int b = home[i];
+                int dst = off[regionOf(b, m, regions)]++;
+                p.keys[dst] = data[i];
+                p.buckets[dst] = b;
+            }
+        });
+        return p;
+    }
+}
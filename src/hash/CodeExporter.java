@@ -0,0 +1,48 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Saída dos exportCodes das tabelas: um código por linha, 9 dígitos com zeros à
+ * esquerda, escrito com Registro.formatInto num buffer reaproveitado. Nenhuma
+ * alocação por chave; o OutputStream só é chamado quando o buffer enche.
+ *
+ * As tabelas aceitam qualquer int, mas só 0..999.999.999 é código de Registro:
+ * as chaves fora dessa faixa não são escritas (formatInto não confere o código).
+ * O runner registra as puladas como size() - exportados, o que inclui as chaves
+ * iguais aos sentinelas, que nem chegam aqui.
+ */
+final class CodeExporter {
+    private static final int LINE = Registro.DIGITOS + 1;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[LINE * 8192];
+    private int pos = 0;
+    private long count = 0;
+
+    CodeExporter(OutputStream out) {
+        this.out = out;
+    }
+
+    void write(int codigo) throws IOException {
+        if (!Registro.codigoValido(codigo)) return;
+        if (pos == buf.length) drain();
+        Registro.formatInto(codigo, buf, pos);
+        buf[pos + Registro.DIGITOS] = '\n';
+        pos += LINE;
+        count++;
+    }
+
+    private void drain() throws IOException {
+        out.write(buf, 0, pos);
+        pos = 0;
+    }
+
+    // Esvazia o buffer e devolve quantos códigos foram escritos; não fecha o stream
+    long finish() throws IOException {
+        drain();
+        out.flush();
+        return count;
+    }
+}
@@ -0,0 +1,125 @@
+package hash;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Datasets da varredura, gerados uma vez por (n, seed, distribuição) e
+ * compartilhados por todas as células (tabelas, hashes, m, repetições e as
+ * threads de --parallel). Os vetores devolvidos são só para leitura: nenhuma
+ * execução pode alterá-los.
+ *
+ * Distribuições (chaves em [0, KEY_RANGE)):
+ *  - RANDOM: a sequência de sempre, java.util.Random(seed + n) (igual a
+ *    ExperimentRunner.generateDataset e aos arquivos de DatasetFile); sequencial.
+ *  - SPLIT: uniforme com repetições, em blocos de CHUNK gerados em paralelo,
+ *    cada um com o seu SplittableRandom (split() feito em ordem, então o
+ *    resultado não depende do número de threads).
+ *  - DISTINCT: chaves distintas, key(i) = permutação pseudoaleatória de i em
+ *    [0, KEY_RANGE): rede de Feistel de 30 bits com cycle-walking. Cada posição
+ *    é independente, então o preenchimento é paralelo e não precisa de conjunto.
+ */
+final class DatasetCache {
+    static final int KEY_RANGE = 1_000_000_000;
+
+    enum Distribution { RANDOM, SPLIT, DISTINCT }
+
+    private static final int CHUNK = 1 << 16;
+    private static final int HALF_BITS = 15; // 2 * 15 = 30 bits >= KEY_RANGE
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private static final ConcurrentHashMap<String, int[]> CACHE = new ConcurrentHashMap<>();
+
+    private DatasetCache() {}
+
+    static int[] get(int n, long seed, Distribution dist) {
+        return CACHE.computeIfAbsent(dist + "/" + seed + "/" + n, k -> generate(n, seed, dist));
+    }
+
+    // Dataset de arquivo (DatasetFile), lido uma vez
+    static int[] file(Path file) throws IOException {
+        String key = "file/" + file.toAbsolutePath().normalize() + "/" + Files.getLastModifiedTime(file).toMillis();
+        int[] cached = CACHE.get(key);
+        if (cached != null) return cached;
+        int[] a = DatasetFile.readAll(file);
+        int[] prev = CACHE.putIfAbsent(key, a);
+        return prev != null ? prev : a;
+    }
+
+    // Chamado por ExperimentRunner.runAll no fim da varredura
+    static void clear() {
+        CACHE.clear();
+    }
+
+    static int[] generate(int n, long seed, Distribution dist) {
+        switch (dist) {
+            case RANDOM:   return ExperimentRunner.generateDataset(n, seed);
+            case SPLIT:    return split(n, seed);
+            case DISTINCT: return distinct(n, seed);
+            default: throw new IllegalArgumentException("Distribuição desconhecida: " + dist);
+        }
+    }
+
+    private static int[] split(int n, long seed) {
+        int[] a = new int[n];
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed + n);
+        SplittableRandom[] rnd = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) rnd[c] = root.split();
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom r = rnd[c];
+            int end = Math.min(n, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) a[i] = r.nextInt(KEY_RANGE);
+        });
+        return a;
+    }
+
+    private static int[] distinct(int n, long seed) {
+        if (n > KEY_RANGE) throw new IllegalArgumentException("Só há " + KEY_RANGE + " chaves distintas; n=" + n);
+        int[] keys = roundKeys(seed + n);
+        int[] a = new int[n];
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int end = Math.min(n, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) a[i] = permute(i, keys);
+        });
+        return a;
+    }
+
+    private static int[] roundKeys(long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int[] k = new int[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) k[i] = r.nextInt();
+        return k;
+    }
+
+    // Bijeção em [0, KEY_RANGE): Feistel em [0, 2^30) e cycle-walking até cair no intervalo
+    static int permute(int x, int[] keys) {
+        do {
+            x = feistel(x, keys);
+        } while (x >= KEY_RANGE);
+        return x;
+    }
+
+    private static int feistel(int x, int[] keys) {
+        int l = x >>> HALF_BITS, r = x & HALF_MASK;
+        for (int k : keys) {
+            int t = l ^ (round(r, k) & HALF_MASK);
+            l = r;
+            r = t;
+        }
+        return (l << HALF_BITS) | r;
+    }
+
+    private static int round(int v, int k) {
+        int h = (v ^ k) * 0x9E3779B1;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
@@ -0,0 +1,151 @@
+package hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Datasets em arquivo: ints little-endian em sequência, sem cabeçalho
+ * (n = tamanho do arquivo / 4). Os arquivos ficam em data/dataset_<rótulo>.bin,
+ * com o rótulo de label(n) (100k, 1M, 10M...).
+ *
+ * write gera as mesmas chaves de ExperimentRunner.generateDataset(n, seed), em
+ * blocos, sem montar o int[] inteiro. O Reader mapeia o arquivo em janelas de
+ * WINDOW_INTS chaves e entrega cada janela como IntBuffer, então a memória usada
+ * não depende de n e arquivos maiores que o heap (ou que 2 GB) também servem.
+ *
+ * Uso como ferramenta:
+ *   java -cp target/benchmarks.jar hash.DatasetFile --out=data --sizes=100000,1000000,10000000
+ */
+public final class DatasetFile {
+    static final int WINDOW_INTS = 1 << 24; // 64 MB por janela mapeada
+    private static final int WRITE_INTS = 1 << 16;
+
+    private DatasetFile() {}
+
+    public static void main(String[] args) throws IOException {
+        String out = "data";
+        int[] sizes = { 100_000, 1_000_000, 10_000_000 };
+        long seed = ExperimentRunner.SEED;
+        for (String a : args) {
+            if (a.startsWith("--out=")) {
+                out = a.substring("--out=".length());
+            } else if (a.startsWith("--sizes=")) {
+                String[] parts = a.substring("--sizes=".length()).split(",");
+                sizes = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) sizes[i] = Integer.parseInt(parts[i].trim());
+            } else if (a.startsWith("--seed=")) {
+                seed = Long.parseLong(a.substring("--seed=".length()).trim());
+            }
+        }
+        Files.createDirectories(Path.of(out));
+        for (int n : sizes) {
+            Path file = pathFor(Path.of(out), n);
+            long t0 = System.nanoTime();
+            write(file, n, seed);
+            System.out.printf("%s: %d chaves em %.1f ms%n", file, n, (System.nanoTime() - t0) / 1e6);
+        }
+    }
+
+    // 100000 -> "100k", 1000000 -> "1M"; outros valores ficam como estão
+    public static String label(int n) {
+        if (n % 1_000_000 == 0) return (n / 1_000_000) + "M";
+        if (n % 1_000 == 0) return (n / 1_000) + "k";
+        return Integer.toString(n);
+    }
+
+    public static Path pathFor(Path dir, int n) {
+        return dir.resolve("dataset_" + label(n) + ".bin");
+    }
+
+    // Mesma sequência de ExperimentRunner.generateDataset(n, seed)
+    public static void write(Path file, int n, long seed) throws IOException {
+        Random rnd = new Random(seed + n);
+        ByteBuffer buf = ByteBuffer.allocateDirect(WRITE_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < n; i++) {
+                buf.putInt(rnd.nextInt(1_000_000_000));
+                if (!buf.hasRemaining()) drain(ch, buf);
+            }
+            drain(ch, buf);
+        }
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    public static long count(Path file) throws IOException {
+        long bytes = Files.size(file);
+        if ((bytes & 3) != 0) throw new IOException("Arquivo " + file + " não tem um número inteiro de ints");
+        return bytes >>> 2;
+    }
+
+    // Carrega o arquivo inteiro num int[] (para datasets que cabem no heap)
+    public static int[] readAll(Path file) throws IOException {
+        long n = count(file);
+        if (n > Integer.MAX_VALUE - 8) throw new IOException("Dataset grande demais para um int[]: " + n);
+        int[] out = new int[(int) n];
+        int pos = 0;
+        try (Reader r = open(file)) {
+            IntBuffer w;
+            while ((w = r.nextWindow()) != null) {
+                int len = w.remaining();
+                w.get(out, pos, len);
+                pos += len;
+            }
+        }
+        return out;
+    }
+
+    public static Reader open(Path file) throws IOException {
+        return new Reader(file);
+    }
+
+    /**
+     * Leitura em janelas mapeadas. Padrão de uso:
+     *   IntBuffer w;
+     *   while ((w = r.nextWindow()) != null) while (w.hasRemaining()) table.insert(w.get());
+     */
+    public static final class Reader implements AutoCloseable {
+        private final FileChannel ch;
+        private final long count;
+        private long offset = 0; // em chaves
+
+        private Reader(Path file) throws IOException {
+            this.count = DatasetFile.count(file);
+            this.ch = FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        public long count() { return count; }
+
+        // Próxima janela, ou null no fim do arquivo; a anterior deixa de ser usada
+        public IntBuffer nextWindow() throws IOException {
+            if (offset >= count) return null;
+            int len = (int) Math.min(WINDOW_INTS, count - offset);
+            IntBuffer w = ch.map(FileChannel.MapMode.READ_ONLY, offset << 2, (long) len << 2)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            offset += len;
+            return w;
+        }
+
+        // Volta ao início (para uma segunda passada, como a fase de busca)
+        public void rewind() {
+            offset = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
@@ -0,0 +1,1297 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+public class ExperimentRunner {
+
+    // Por padrão roda tudo; pode filtrar por CLI (ver main)
+    private static int[] TABLE_SIZES = { 200_003, 2_000_003, 20_000_027 };
+    private static int[] DATA_SIZES  = { 100_000, 1_000_000, 10_000_000 };
+    private static int REPEATS = 1;              // pode mudar por --repeats=3
+    private static double MAX_LOAD = 0;          // > 0 liga o crescimento (--grow=0.75)
+    private static int REHASH_SLICE = 0;         // > 0 liga o rehash incremental (--rehash-slice=64)
+    private static double MAX_AVG_CHAIN = 0;     // > 0 refaz os buckets do chaining (--max-chain=4)
+    private static boolean DELETE_PHASE = false; // --delete
+    private static boolean BULK_PHASE = false;   // --bulk
+    private static boolean EXPORT_PHASE = false; // --export
+    private static boolean OP_STATS = false;     // --opstats
+    private static boolean METRICS_BINARY = false; // --metrics=bin
+    private static int PARALLEL = 0;             // --parallel=8 roda as células num pool de threads
+    private static int FORK = 0;                 // --fork=8 roda cada célula numa JVM filha
+    private static int JOB = -1;                 // --job=i (interno: JVM filha de --fork)
+    private static String JOB_OUT = null;        // --job-out=ARQ (interno: métricas da JVM filha)
+    private static boolean BACKWARD_SHIFT = false; // --backshift (só linear)
+    private static int CUCKOO_WAYS = 4;          // --cuckoo-ways=1
+    private static int[] THREADS = {};           // --threads=1,2,4,8,16 liga a fase multi-thread
+    private static String DATASET_DIR = null;    // --dataset-dir=data
+    private static DatasetCache.Distribution KEYS = DatasetCache.Distribution.RANDOM; // --keys=distinct
+    private static String STREAM_FILE = null;    // --stream=data/dataset_10M.bin
+    private static boolean INGEST = false;       // --ingest
+    private static int INGEST_BATCH = 1024;      // --ingest-batch=1024
+    private static String SNAPSHOT_DIR = null;   // --snapshot-dir=DIR liga as fases save/load
+    private static String OFFHEAP_DIR = null;    // --offheap-dir=DIR mapeia as tabelas off-heap em arquivos
+    private static int STRIPES = 256;            // --stripes=256 (faixas de lock do chaining concorrente)
+    private static HashStrategy[] HASHES = { HashStrategy.MOD, HashStrategy.MUL, HashStrategy.MIX };
+    static final long SEED = 42L;
+
+    // Para feedback visual
+    private static boolean VERBOSE = true;
+
+    static int[] generateDataset(int n, long seed) {
+        Random rnd = new Random(seed + n);
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) arr[i] = rnd.nextInt(1_000_000_000);
+        return arr;
+    }
+
+    // Dataset de --dataset-dir (gerado por DatasetFile) se existir com n chaves; senão gera.
+    // Vem do DatasetCache: gerado/lido uma vez e compartilhado, então é só para leitura.
+    static int[] dataset(int n) throws IOException {
+        if (DATASET_DIR != null) {
+            Path f = DatasetFile.pathFor(Paths.get(DATASET_DIR), n);
+            if (Files.exists(f) && DatasetFile.count(f) == n) return DatasetCache.file(f);
+        }
+        return DatasetCache.get(n, SEED, KEYS);
+    }
+
+    private static void gcPause() {
+        Runtime rt = Runtime.getRuntime();
+        rt.gc();
+        try { Thread.sleep(50); } catch (InterruptedException ignored) {}
+    }
+
+    private static void log(MetricsSink out, int runId, String tableType, int m, String hashName, int n,
+                            String phase, String metric, long value) throws IOException {
+        out.row(runId, tableType, m, hashName, n, phase, metric, value);
+    }
+
+    private static void log(MetricsSink out, int runId, String tableType, int m, String hashName, int n,
+                            String phase, String metric, double value) throws IOException {
+        out.row(runId, tableType, m, hashName, n, phase, metric, value);
+    }
+
+    public static void runAll(String[] args) throws IOException {
+        // Flags:
+        // --quick                   => DATA_SIZES = {100_000}, TABLE_SIZES = {200_003}
+        // --tables=chain,lin,double,robin,swiss,cuckoo,offheap => filtra quais tabelas
+        //                              (swiss usa a Vector API se rodar com --add-modules jdk.incubator.vector;
+        //                              offheap = linear e hash duplo fora do heap, só com --tables=)
+        // --keys=random             => chaves do dataset: random = java.util.Random (padrão, a sequência
+        //                              de sempre); split = SplittableRandom em paralelo (com repetições);
+        //                              distinct = sem repetições (permutação), colisões sem duplicatas
+        // --dataset-dir=data        => lê data/dataset_<n>.bin (hash.DatasetFile) em vez de gerar
+        // --stream=ARQ.bin          => em vez da varredura normal: insere e busca as chaves do arquivo
+        //                              por janelas mapeadas, sem int[] (datasets maiores que o heap)
+        // --ingest                  => em vez da varredura normal: pipeline de ingestão em lotes
+        //                              (valida com a regra de Registro, vazão por janela e percentis);
+        //                              fonte = arquivo de --stream=, ou as chaves geradas, sem int[]
+        // --ingest-batch=1024       => chaves por lote da ingestão
+        // --snapshot-dir=/tmp/hash  => fases save/load: grava a tabela montada e a carrega de volta
+        //                              (comparar load com o insert da mesma execução)
+        // --offheap-dir=/tmp/hash   => offheap mapeado em arquivo (FileChannel.map) + fase reopen
+        // --metrics=bin             => grava results/metrics.bin (binário, hash.MetricsSink --to-csv=
+        //                              converte) em vez de results/metrics.csv
+        // --parallel=8              => até 8 células (tipo, m, hash, n, repetição) ao mesmo tempo, em
+        //                              threads; mais vazão, mas os tempos sofrem com a disputa
+        // --fork=8                  => idem, cada célula numa JVM filha (tempos isolados); as duas
+        //                              juntam tudo num CSV só, na ordem e com os run_id da sequencial
+        //                              (--parallel=max / --fork=max = número de núcleos)
+        // --msizes=200003,2000003,20000027
+        // --repeats=3
+        // --quiet                   => menos prints
+        // --pow2                    => m arredondado para potência de 2 (indexação por máscara)
+        //                              e hashes fmix/fib/mul no lugar de mod/mul/mix
+        // --grow=0.75               => linear/double crescem ao passar desse fator de carga
+        //                              (n >= m deixa de ser pulado)
+        // --rehash-slice=64         => com --grow, migra 64 posições por operação em vez de tudo de uma vez
+        // --max-chain=4             => chaining dobra o vetor de buckets quando n/m passa de 4
+        // --delete                  => fase extra: remove a 1ª metade do dataset e busca a 2ª
+        // --bulk                    => fase extra (chaining, linear e double): monta outra tabela com
+        //                              bulkInsert paralelo (bulk_insert); as colisões do lote só
+        //                              são registradas com m fixo (sem --max-chain/--grow), pois o
+        //                              lote é montado direto no m final
+        // --opstats                 => fase extra: outra tabela com cada insert/busca cronometrado e o
+        //                              comprimento da sondagem registrado; percentis p50..p999 e máx
+        //                              (as fases normais não são instrumentadas)
+        // --export                  => fase extra: exporta os códigos da tabela (9 dígitos por linha,
+        //                              Registro.formatInto) para um stream nulo; mede só a formatação
+        // --backshift               => linear remove por deslocamento em vez de lápide
+        // --cuckoo-ways=1           => cuckoo com 1 posição por bucket (padrão 4)
+        // --threads=1,2,4,8,16      => chaining com N threads: lock único (chaining_locked)
+        //                              vs. faixas de lock (chaining_striped)
+        //                              e linear com lock único (linear_locked) vs. CAS (linear_cas)
+        // --threads=max             => 1, 2, 4, ... até o número de núcleos
+        // --stripes=256             => número de faixas do chaining_striped
+        boolean runChain = true, runLin = true, runDouble = true, runRobin = true, runSwiss = true, runCuckoo = true;
+        boolean runOffHeap = false;
+        boolean pow2 = false;
+
+        for (String a : args) {
+            if (a.equalsIgnoreCase("--quick")) {
+                DATA_SIZES = new int[]{100_000};
+                TABLE_SIZES = new int[]{200_003};
+            } else if (a.startsWith("--tables=")) {
+                String v = a.substring("--tables=".length()).toLowerCase();
+                runChain  = v.contains("chain");
+                runLin    = v.contains("lin");
+                runDouble = v.contains("double");
+                runRobin  = v.contains("robin");
+                runSwiss  = v.contains("swiss");
+                runCuckoo = v.contains("cuckoo");
+                runOffHeap = v.contains("offheap");
+            } else if (a.startsWith("--msizes=")) {
+                String v = a.substring("--msizes=".length());
+                String[] parts = v.split(",");
+                int[] ms = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) ms[i] = Integer.parseInt(parts[i].trim());
+                TABLE_SIZES = ms;
+            } else if (a.startsWith("--repeats=")) {
+                REPEATS = Math.max(1, Integer.parseInt(a.substring("--repeats=".length()).trim()));
+            } else if (a.startsWith("--metrics=")) {
+                METRICS_BINARY = a.substring("--metrics=".length()).trim().equalsIgnoreCase("bin");
+            } else if (a.startsWith("--parallel=")) {
+                PARALLEL = workers(a.substring("--parallel=".length()).trim());
+            } else if (a.startsWith("--fork=")) {
+                FORK = workers(a.substring("--fork=".length()).trim());
+            } else if (a.startsWith("--job=")) {
+                JOB = Integer.parseInt(a.substring("--job=".length()).trim());
+            } else if (a.startsWith("--job-out=")) {
+                JOB_OUT = a.substring("--job-out=".length()).trim();
+            } else if (a.equalsIgnoreCase("--quiet")) {
+                VERBOSE = false;
+            } else if (a.equalsIgnoreCase("--pow2")) {
+                pow2 = true;
+            } else if (a.startsWith("--grow=")) {
+                MAX_LOAD = Double.parseDouble(a.substring("--grow=".length()).trim());
+            } else if (a.startsWith("--rehash-slice=")) {
+                REHASH_SLICE = Integer.parseInt(a.substring("--rehash-slice=".length()).trim());
+            } else if (a.equalsIgnoreCase("--delete")) {
+                DELETE_PHASE = true;
+            } else if (a.startsWith("--keys=")) {
+                KEYS = DatasetCache.Distribution.valueOf(a.substring("--keys=".length()).trim().toUpperCase());
+            } else if (a.startsWith("--dataset-dir=")) {
+                DATASET_DIR = a.substring("--dataset-dir=".length()).trim();
+            } else if (a.startsWith("--stream=")) {
+                STREAM_FILE = a.substring("--stream=".length()).trim();
+            } else if (a.equalsIgnoreCase("--ingest")) {
+                INGEST = true;
+            } else if (a.startsWith("--ingest-batch=")) {
+                INGEST_BATCH = Integer.parseInt(a.substring("--ingest-batch=".length()).trim());
+            } else if (a.startsWith("--snapshot-dir=")) {
+                SNAPSHOT_DIR = a.substring("--snapshot-dir=".length()).trim();
+            } else if (a.startsWith("--offheap-dir=")) {
+                OFFHEAP_DIR = a.substring("--offheap-dir=".length()).trim();
+            } else if (a.equalsIgnoreCase("--opstats")) {
+                OP_STATS = true;
+            } else if (a.equalsIgnoreCase("--export")) {
+                EXPORT_PHASE = true;
+            } else if (a.equalsIgnoreCase("--bulk")) {
+                BULK_PHASE = true;
+            } else if (a.equalsIgnoreCase("--threads=max")) {
+                THREADS = threadSteps(Runtime.getRuntime().availableProcessors());
+            } else if (a.startsWith("--threads=")) {
+                String[] parts = a.substring("--threads=".length()).split(",");
+                THREADS = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) THREADS[i] = Integer.parseInt(parts[i].trim());
+            } else if (a.startsWith("--stripes=")) {
+                STRIPES = Integer.parseInt(a.substring("--stripes=".length()).trim());
+            } else if (a.startsWith("--cuckoo-ways=")) {
+                CUCKOO_WAYS = Integer.parseInt(a.substring("--cuckoo-ways=".length()).trim());
+            } else if (a.equalsIgnoreCase("--backshift")) {
+                BACKWARD_SHIFT = true;
+            } else if (a.startsWith("--max-chain=")) {
+                MAX_AVG_CHAIN = Double.parseDouble(a.substring("--max-chain=".length()).trim());
+            }
+        }
+
+        if (pow2) {
+            int[] ms = new int[TABLE_SIZES.length];
+            for (int i = 0; i < ms.length; i++) ms[i] = ceilPow2(TABLE_SIZES[i]);
+            TABLE_SIZES = ms;
+            HASHES = new HashStrategy[]{ HashStrategy.FMIX, HashStrategy.FIB, HashStrategy.MUL };
+        }
+
+        // Uma célula por (repetição, m, tipo, hash, n); a ordem e os run_id são os da varredura sequencial
+        List<ExperimentScheduler.Job> jobs = new ArrayList<>();
+        int runId = 0;
+        for (int rep = 0; rep < REPEATS; rep++) {
+            for (int m : TABLE_SIZES) {
+                if (INGEST) {
+                    boolean perN = STREAM_FILE == null;
+                    if (runChain)  for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "chaining-ingest", m, hs.csvName(), perN, (o, id, ns) -> runIngest(o, id, "chaining", m, hs.csvName(), hs, ns));
+                    if (runLin)    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "linear-ingest", m, hs.csvName(), perN, (o, id, ns) -> runIngest(o, id, "linear", m, hs.csvName(), hs, ns));
+                    if (runDouble) for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "doublehash-ingest", m, hs.csvName() + "+dh", perN, (o, id, ns) -> runIngest(o, id, "doublehash", m, hs.csvName() + "+dh", hs, ns));
+                    if (runRobin)  for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "robinhood-ingest", m, hs.csvName(), perN, (o, id, ns) -> runIngest(o, id, "robinhood", m, hs.csvName(), hs, ns));
+                    if (runSwiss)  for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "swiss-ingest", m, hs.csvName(), perN, (o, id, ns) -> runIngest(o, id, "swiss", m, hs.csvName(), hs, ns));
+                    if (runCuckoo) for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "cuckoo-ingest", m, hs.csvName(), perN, (o, id, ns) -> runIngest(o, id, "cuckoo", m, hs.csvName(), hs, ns));
+                    continue;
+                }
+
+                if (STREAM_FILE != null) {
+                    Path file = Paths.get(STREAM_FILE);
+                    if (runChain)  for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "chaining-stream", m, hs.csvName(), false, (o, id, ns) -> runStream(o, id, "chaining", m, hs.csvName(), hs, file));
+                    if (runLin)    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "linear-stream", m, hs.csvName(), false, (o, id, ns) -> runStream(o, id, "linear", m, hs.csvName(), hs, file));
+                    if (runDouble) for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "doublehash-stream", m, hs.csvName() + "+dh", false, (o, id, ns) -> runStream(o, id, "doublehash", m, hs.csvName() + "+dh", hs, file));
+                    if (runRobin)  for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "robinhood-stream", m, hs.csvName(), false, (o, id, ns) -> runStream(o, id, "robinhood", m, hs.csvName(), hs, file));
+                    if (runSwiss)  for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "swiss-stream", m, hs.csvName(), false, (o, id, ns) -> runStream(o, id, "swiss", m, hs.csvName(), hs, file));
+                    if (runCuckoo) for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "cuckoo-stream", m, hs.csvName(), false, (o, id, ns) -> runStream(o, id, "cuckoo", m, hs.csvName(), hs, file));
+                    continue;
+                }
+
+                if (runChain) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "chaining", m, hs.csvName(), true, (o, id, ns) -> runChaining(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runChain && THREADS.length > 0) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "chaining-mt", m, hs.csvName(), true, (o, id, ns) -> runChainingConcurrent(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runLin) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "linear", m, hs.csvName(), true, (o, id, ns) -> runLinear(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runLin && THREADS.length > 0) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "linear-mt", m, hs.csvName(), true, (o, id, ns) -> runLinearConcurrent(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runDouble) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "doublehash", m, hs.csvName() + "+dh", true, (o, id, ns) -> runDoubleHash(o, id, m, hs.csvName() + "+dh", hs, ns));
+                }
+
+                if (runRobin) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "robinhood", m, hs.csvName(), true, (o, id, ns) -> runRobinHood(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runSwiss) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "swiss", m, hs.csvName(), true, (o, id, ns) -> runSwiss(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runCuckoo) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "cuckoo", m, hs.csvName(), true, (o, id, ns) -> runCuckoo(o, id, m, hs.csvName(), hs, ns));
+                }
+
+                if (runOffHeap) {
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "linear_offheap", m, hs.csvName(), true, (o, id, ns) -> runOffHeap(o, id, m, hs.csvName(), hs, false, ns));
+                    for (HashStrategy hs : HASHES) runId = addJobs(jobs, rep, runId, "double_offheap", m, hs.csvName() + "+dh", true, (o, id, ns) -> runOffHeap(o, id, m, hs.csvName() + "+dh", hs, true, ns));
+                }
+            }
+        }
+
+        if (JOB >= 0) { // JVM filha de --fork: só a célula pedida, no arquivo do pai
+            try (MetricsSink out = MetricsSink.binary(Paths.get(JOB_OUT))) {
+                jobs.get(JOB).body.run(out);
+            }
+            return;
+        }
+
+        try (MetricsSink out = METRICS_BINARY ? MetricsSink.binary(Paths.get("results/metrics.bin"))
+                                              : MetricsSink.csv(Paths.get("results/metrics.csv"))) {
+            if (FORK > 0) {
+                List<String> childArgs = new ArrayList<>();
+                for (String a : args) {
+                    if (!a.startsWith("--fork=") && !a.startsWith("--parallel=") && !a.startsWith("--metrics=")) childArgs.add(a);
+                }
+                ExperimentScheduler.runForked(jobs, FORK, out, childArgs, VERBOSE);
+            } else if (PARALLEL > 0) {
+                ExperimentScheduler.runThreads(jobs, PARALLEL, out, VERBOSE);
+            } else {
+                int lastRep = -1;
+                for (ExperimentScheduler.Job job : jobs) {
+                    if (VERBOSE && job.rep != lastRep) System.out.printf("=== Repetição %d/%d ===%n", job.rep + 1, REPEATS);
+                    lastRep = job.rep;
+                    job.body.run(out);
+                }
+            }
+        } finally {
+            // fim da varredura: solta os datasets compartilhados (até 10M chaves cada) antes
+            // do que rodar depois nesta JVM, como os benchmarks JMH
+            DatasetCache.clear();
+        }
+    }
+
+    interface Cell {
+        void run(MetricsSink out, int runId, int[] sizes) throws IOException;
+    }
+
+    // Células de um run_id: uma por n de DATA_SIZES, ou uma só com todos (perN = false)
+    private static int addJobs(List<ExperimentScheduler.Job> jobs, int rep, int runId, String type, int m,
+                               String hashName, boolean perN, Cell cell) {
+        String label = type + "[" + hashName + "] m=" + m + " rep=" + (rep + 1);
+        if (!perN) {
+            jobs.add(new ExperimentScheduler.Job(jobs.size(), rep, label, o -> cell.run(o, runId, DATA_SIZES)));
+            return runId + 1;
+        }
+        for (int n : DATA_SIZES) {
+            int[] one = { n };
+            jobs.add(new ExperimentScheduler.Job(jobs.size(), rep, label + " n=" + n, o -> cell.run(o, runId, one)));
+        }
+        return runId + 1;
+    }
+
+    private static int workers(String v) {
+        return v.equalsIgnoreCase("max") ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(v);
+    }
+
+    // 1, 2, 4, ... e o próprio max no fim se não for potência de 2
+    private static int[] threadSteps(int max) {
+        int count = 32 - Integer.numberOfLeadingZeros(max) + (Integer.bitCount(max) == 1 ? 0 : 1);
+        int[] steps = new int[count];
+        for (int i = 0, t = 1; i < count; i++, t <<= 1) steps[i] = Math.min(t, max);
+        return steps;
+    }
+
+    private static int ceilPow2(int m) {
+        int p = Integer.highestOneBit(m);
+        return p == m ? m : p << 1;
+    }
+
+    private static void runChaining(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            if (VERBOSE) System.out.printf("[chaining][%s] m=%d, n=%d%n", hashName, m, n);
+
+            int[] data = dataset(n);
+
+            // antes da fase: coleta o lixo das fases anteriores
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableChaining table = new HashTableChaining(m, h, n, MAX_AVG_CHAIN);
+
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            int progressStep = Math.max(1, n / 10);
+            int cnt = 0;
+            for (int x : data) {
+                table.insert(x);
+                if (VERBOSE && (++cnt % progressStep == 0)) {
+                    System.out.printf("  insert %d/%d%n", cnt, n);
+                }
+            }
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            log(out, runId, "chaining", m, hashName, n, "insert", "time_ns", t1 - t0);
+            long insertCollisions = table.getCollisions();
+            log(out, runId, "chaining", m, hashName, n, "insert", "collisions", insertCollisions);
+            log(out, runId, "chaining", m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, "chaining", m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+            if (MAX_AVG_CHAIN > 0) {
+                log(out, runId, "chaining", m, hashName, n, "insert", "resizes", table.getResizes());
+                log(out, runId, "chaining", m, hashName, n, "insert", "capacity_final", table.capacity());
+            }
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (chaining)!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, "chaining", m, hashName, n, "search", "time_ns", b1 - b0);
+
+            int[] top3 = table.top3ChainLengths();
+            if (BULK_PHASE) {
+                HashTableChaining bulk = new HashTableChaining(m, h, n, MAX_AVG_CHAIN);
+                long k0 = System.nanoTime();
+                bulk.bulkInsert(data);
+                long k1 = System.nanoTime();
+                if (bulk.size() != table.size() || !Arrays.equals(bulk.top3ChainLengths(), top3)
+                        || (MAX_AVG_CHAIN <= 0 && bulk.getCollisions() != insertCollisions)) {
+                    throw new AssertionError("bulkInsert difere da inserção sequencial (chaining)!");
+                }
+                log(out, runId, "chaining", m, hashName, n, "bulk_insert", "time_ns", k1 - k0);
+                // com crescimento o lote é montado no m final: colisões não comparáveis com insert
+                if (MAX_AVG_CHAIN <= 0) log(out, runId, "chaining", m, hashName, n, "bulk_insert", "collisions", bulk.getCollisions());
+            }
+
+            log(out, runId, "chaining", m, hashName, n, "structure", "chain_top1", top3[0]);
+            log(out, runId, "chaining", m, hashName, n, "structure", "chain_top2", top3[1]);
+            log(out, runId, "chaining", m, hashName, n, "structure", "chain_top3", top3[2]);
+            log(out, runId, "chaining", m, hashName, n, "structure", "occupied_buckets", table.occupiedBuckets());
+
+            HashTableChaining.GapStats gs = table.bucketGapStats();
+            log(out, runId, "chaining", m, hashName, n, "gaps", "min", gs.min);
+            log(out, runId, "chaining", m, hashName, n, "gaps", "avg", gs.avg);
+            log(out, runId, "chaining", m, hashName, n, "gaps", "max", gs.max);
+
+            if (OP_STATS) {
+                HashTableChaining t = new HashTableChaining(m, h, n, MAX_AVG_CHAIN);
+                runOpStats(out, runId, "chaining", m, hashName, n, data, t::insertProbeCount, t::probeCount, t::contains);
+            }
+
+            if (EXPORT_PHASE) {
+                long e0 = System.nanoTime();
+                long exported = table.exportCodes(OutputStream.nullOutputStream());
+                logExport(out, runId, "chaining", m, hashName, n, System.nanoTime() - e0, exported, table.size());
+            }
+
+            if (SNAPSHOT_DIR != null) {
+                Path file = snapshotFile("chaining", hashName, m, n);
+                long w0 = System.nanoTime();
+                table.save(file);
+                long w1 = System.nanoTime();
+                HashTableChaining loaded = HashTableChaining.load(file);
+                long w2 = System.nanoTime();
+                if (loaded.size() != table.size()) throw new AssertionError("Falha no load (chaining)!");
+                logSnapshot(out, runId, "chaining", m, hashName, n, w1 - w0, w2 - w1, file);
+            }
+
+            if (DELETE_PHASE) {
+                int half = n / 2;
+                long d0 = System.nanoTime();
+                for (int i = 0; i < half; i++) {
+                    if (!table.remove(data[i])) throw new AssertionError("Falha na remoção (chaining)!");
+                }
+                long d1 = System.nanoTime();
+                log(out, runId, "chaining", m, hashName, n, "delete", "time_ns", d1 - d0);
+
+                long s0 = System.nanoTime();
+                for (int i = half; i < n; i++) {
+                    if (!table.contains(data[i])) throw new AssertionError("Falha na busca após remoção (chaining)!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, "chaining", m, hashName, n, "search_after_delete", "time_ns", s1 - s0);
+            }
+        }
+    }
+
+    private static void runChainingConcurrent(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            int[] data = dataset(n);
+
+            for (int threads : THREADS) {
+                if (VERBOSE) System.out.printf("[chaining-mt][%s] m=%d, n=%d, threads=%d%n", hashName, m, n, threads);
+
+                // referência: o HashTableChaining atrás de um lock só
+                HashTableChaining locked = new HashTableChaining(m, h, n);
+                long ti = runParallel(threads, data, x -> { synchronized (locked) { locked.insert(x); } return true; });
+                if (locked.size() != n) throw new AssertionError("Tamanho errado após inserção multi-thread (chaining_locked)!");
+                long ts = runParallel(threads, data, x -> { synchronized (locked) { return locked.contains(x); } });
+                logThroughput(out, runId, "chaining_locked", m, hashName, n, threads, ti, ts);
+
+                HashTableChainingStriped striped = new HashTableChainingStriped(m, h, STRIPES);
+                ti = runParallel(threads, data, x -> { striped.insert(x); return true; });
+                if (striped.size() != n) throw new AssertionError("Tamanho errado após inserção multi-thread (chaining_striped)!");
+                ts = runParallel(threads, data, striped::contains);
+                logThroughput(out, runId, "chaining_striped", m, hashName, n, threads, ti, ts);
+            }
+        }
+    }
+
+    private static void runLinearConcurrent(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            if (n >= m) continue; // tamanho fixo; fator de carga >= 1 é inviável
+            int[] data = dataset(n);
+
+            for (int threads : THREADS) {
+                if (VERBOSE) System.out.printf("[linear-mt][%s] m=%d, n=%d, threads=%d%n", hashName, m, n, threads);
+
+                // referência: o HashTableLinearProbing atrás de um lock só
+                HashTableLinearProbing locked = new HashTableLinearProbing(m, h);
+                long ti = runParallel(threads, data, x -> { synchronized (locked) { locked.insert(x); } return true; });
+                if (locked.size() != n) throw new AssertionError("Tamanho errado após inserção multi-thread (linear_locked)!");
+                long ts = runParallel(threads, data, x -> { synchronized (locked) { return locked.contains(x); } });
+                logThroughput(out, runId, "linear_locked", m, hashName, n, threads, ti, ts);
+
+                HashTableLinearProbingConcurrent cas = new HashTableLinearProbingConcurrent(m, h);
+                ti = runParallel(threads, data, x -> { cas.insert(x); return true; });
+                if (cas.size() != n) throw new AssertionError("Tamanho errado após inserção multi-thread (linear_cas)!");
+                ts = runParallel(threads, data, cas::contains);
+                logThroughput(out, runId, "linear_cas", m, hashName, n, threads, ti, ts);
+                log(out, runId, "linear_cas", m, hashName, n, "mt_insert", "collisions_t" + threads, cas.getCollisions());
+                log(out, runId, "linear_cas", m, hashName, n, "mt_insert", "cas_retries_t" + threads, cas.getCasRetries());
+            }
+        }
+    }
+
+    // Divide data em blocos contíguos, um por thread, e devolve o tempo de parede (ns).
+    // A falha de uma thread é relançada aqui depois do join, para não virar medição.
+    static long runParallel(int threads, int[] data, IntPredicate op) {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] ts = new Thread[threads];
+        int chunk = (data.length + threads - 1) / threads;
+        for (int t = 0; t < threads; t++) {
+            int from = Math.min(data.length, t * chunk);
+            int to = Math.min(data.length, from + chunk);
+            ts[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = from; i < to; i++) {
+                        if (!op.test(data[i])) throw new AssertionError("Falha na busca (multi-thread)!");
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            ts[t].start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread t : ts) {
+            try { t.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        long elapsed = System.nanoTime() - t0;
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        if (e instanceof Error) throw (Error) e;
+        if (e != null) throw new IllegalStateException("Thread de runParallel interrompida", e);
+        return elapsed;
+    }
+
+    private static void logThroughput(MetricsSink out, int runId, String tableType, int m, String hashName, int n,
+                                      int threads, long insertNs, long searchNs) throws IOException {
+        log(out, runId, tableType, m, hashName, n, "mt_insert", "time_ns_t" + threads, insertNs);
+        log(out, runId, tableType, m, hashName, n, "mt_insert", "ops_per_s_t" + threads, n * 1_000_000_000L / Math.max(1, insertNs));
+        log(out, runId, tableType, m, hashName, n, "mt_search", "time_ns_t" + threads, searchNs);
+        log(out, runId, tableType, m, hashName, n, "mt_search", "ops_per_s_t" + threads, n * 1_000_000_000L / Math.max(1, searchNs));
+    }
+
+    private static void runLinear(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            if (n >= m && MAX_LOAD <= 0) continue; // inviável; fator de carga >= 1
+            if (VERBOSE) System.out.printf("[linear][%s] m=%d, n=%d (load=%.3f)%n", hashName, m, n, n/(double)m);
+
+            int[] data = dataset(n);
+
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableLinearProbing table = new HashTableLinearProbing(m, h, MAX_LOAD, REHASH_SLICE, BACKWARD_SHIFT);
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            int progressStep = Math.max(1, n / 10);
+            int cnt = 0;
+            for (int x : data) {
+                table.insert(x);
+                if (VERBOSE && (++cnt % progressStep == 0)) {
+                    System.out.printf("  insert %d/%d%n", cnt, n);
+                }
+            }
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            log(out, runId, "linear", m, hashName, n, "insert", "time_ns", t1 - t0);
+            log(out, runId, "linear", m, hashName, n, "insert", "collisions", table.getCollisions());
+            log(out, runId, "linear", m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, "linear", m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+            if (MAX_LOAD > 0) {
+                log(out, runId, "linear", m, hashName, n, "insert", "resizes", table.getResizes());
+                log(out, runId, "linear", m, hashName, n, "insert", "capacity_final", table.capacity());
+            }
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (linear)!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, "linear", m, hashName, n, "search", "time_ns", b1 - b0);
+
+            if (BULK_PHASE) {
+                HashTableLinearProbing bulk = new HashTableLinearProbing(m, h, MAX_LOAD, REHASH_SLICE, BACKWARD_SHIFT);
+                long k0 = System.nanoTime();
+                bulk.bulkInsert(data);
+                long k1 = System.nanoTime();
+                if (bulk.size() != table.size()) throw new AssertionError("bulkInsert difere da inserção sequencial (linear)!");
+                for (int x : data) {
+                    if (!bulk.contains(x)) throw new AssertionError("Falha na busca após bulkInsert (linear)!");
+                }
+                log(out, runId, "linear", m, hashName, n, "bulk_insert", "time_ns", k1 - k0);
+                if (MAX_LOAD <= 0) log(out, runId, "linear", m, hashName, n, "bulk_insert", "collisions", bulk.getCollisions());
+            }
+
+            HashTableLinearProbing.ProbeStats ps = table.probeStats();
+            log(out, runId, "linear", m, hashName, n, "structure", "probe_avg", ps.avg);
+            log(out, runId, "linear", m, hashName, n, "structure", "probe_max", ps.max);
+
+            HashTableLinearProbing.GapStats gs = table.gapStats();
+            log(out, runId, "linear", m, hashName, n, "gaps", "min", gs.min);
+            log(out, runId, "linear", m, hashName, n, "gaps", "avg", gs.avg);
+            log(out, runId, "linear", m, hashName, n, "gaps", "max", gs.max);
+
+            if (OP_STATS) {
+                HashTableLinearProbing t = new HashTableLinearProbing(m, h, MAX_LOAD, REHASH_SLICE, BACKWARD_SHIFT);
+                runOpStats(out, runId, "linear", m, hashName, n, data, t::insertProbeCount, t::probeCount, t::contains);
+            }
+
+            if (EXPORT_PHASE) {
+                long e0 = System.nanoTime();
+                long exported = table.exportCodes(OutputStream.nullOutputStream());
+                logExport(out, runId, "linear", m, hashName, n, System.nanoTime() - e0, exported, table.size());
+            }
+
+            if (SNAPSHOT_DIR != null) {
+                Path file = snapshotFile("linear", hashName, m, n);
+                long w0 = System.nanoTime();
+                table.save(file);
+                long w1 = System.nanoTime();
+                HashTableLinearProbing loaded = HashTableLinearProbing.load(file);
+                long w2 = System.nanoTime();
+                if (loaded.size() != table.size()) throw new AssertionError("Falha no load (linear)!");
+                logSnapshot(out, runId, "linear", m, hashName, n, w1 - w0, w2 - w1, file);
+            }
+
+            if (DELETE_PHASE) {
+                int half = n / 2;
+                long d0 = System.nanoTime();
+                for (int i = 0; i < half; i++) {
+                    if (!table.remove(data[i])) throw new AssertionError("Falha na remoção (linear)!");
+                }
+                long d1 = System.nanoTime();
+                log(out, runId, "linear", m, hashName, n, "delete", "time_ns", d1 - d0);
+                log(out, runId, "linear", m, hashName, n, "delete", "tombstones", table.getTombstones());
+                log(out, runId, "linear", m, hashName, n, "delete", "cleanups", table.getCleanups());
+
+                long s0 = System.nanoTime();
+                for (int i = half; i < n; i++) {
+                    if (!table.contains(data[i])) throw new AssertionError("Falha na busca após remoção (linear)!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, "linear", m, hashName, n, "search_after_delete", "time_ns", s1 - s0);
+            }
+        }
+    }
+
+    private static void runRobinHood(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            if (n >= m) continue; // inviável; fator de carga >= 1 (sem crescimento)
+            if (VERBOSE) System.out.printf("[robinhood][%s] m=%d, n=%d (load=%.3f)%n", hashName, m, n, n/(double)m);
+
+            int[] data = dataset(n);
+
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableRobinHood table = new HashTableRobinHood(m, h);
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            int progressStep = Math.max(1, n / 10);
+            int cnt = 0;
+            for (int x : data) {
+                table.insert(x);
+                if (VERBOSE && (++cnt % progressStep == 0)) {
+                    System.out.printf("  insert %d/%d%n", cnt, n);
+                }
+            }
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            log(out, runId, "robinhood", m, hashName, n, "insert", "time_ns", t1 - t0);
+            log(out, runId, "robinhood", m, hashName, n, "insert", "collisions", table.getCollisions());
+            log(out, runId, "robinhood", m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, "robinhood", m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (robinhood)!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, "robinhood", m, hashName, n, "search", "time_ns", b1 - b0);
+
+            HashTableRobinHood.ProbeStats ps = table.probeStats();
+            log(out, runId, "robinhood", m, hashName, n, "structure", "probe_avg", ps.avg);
+            log(out, runId, "robinhood", m, hashName, n, "structure", "probe_max", ps.max);
+
+            HashTableRobinHood.GapStats gs = table.gapStats();
+            log(out, runId, "robinhood", m, hashName, n, "gaps", "min", gs.min);
+            log(out, runId, "robinhood", m, hashName, n, "gaps", "avg", gs.avg);
+            log(out, runId, "robinhood", m, hashName, n, "gaps", "max", gs.max);
+
+            if (OP_STATS) {
+                HashTableRobinHood t = new HashTableRobinHood(m, h);
+                runOpStats(out, runId, "robinhood", m, hashName, n, data, t::insertProbeCount, t::probeCount, t::contains);
+            }
+
+            if (EXPORT_PHASE) {
+                long e0 = System.nanoTime();
+                long exported = table.exportCodes(OutputStream.nullOutputStream());
+                logExport(out, runId, "robinhood", m, hashName, n, System.nanoTime() - e0, exported, table.size());
+            }
+
+            if (SNAPSHOT_DIR != null) {
+                Path file = snapshotFile("robinhood", hashName, m, n);
+                long w0 = System.nanoTime();
+                table.save(file);
+                long w1 = System.nanoTime();
+                HashTableRobinHood loaded = HashTableRobinHood.load(file);
+                long w2 = System.nanoTime();
+                if (loaded.size() != table.size()) throw new AssertionError("Falha no load (robinhood)!");
+                logSnapshot(out, runId, "robinhood", m, hashName, n, w1 - w0, w2 - w1, file);
+            }
+
+            if (DELETE_PHASE) {
+                int half = n / 2;
+                long d0 = System.nanoTime();
+                for (int i = 0; i < half; i++) {
+                    if (!table.remove(data[i])) throw new AssertionError("Falha na remoção (robinhood)!");
+                }
+                long d1 = System.nanoTime();
+                log(out, runId, "robinhood", m, hashName, n, "delete", "time_ns", d1 - d0);
+
+                long s0 = System.nanoTime();
+                for (int i = half; i < n; i++) {
+                    if (!table.contains(data[i])) throw new AssertionError("Falha na busca após remoção (robinhood)!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, "robinhood", m, hashName, n, "search_after_delete", "time_ns", s1 - s0);
+            }
+        }
+    }
+
+    private static void runDoubleHash(MetricsSink out, int runId, int m, String hashName, HashStrategy h1, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            if (n >= m && MAX_LOAD <= 0) continue;
+            if (VERBOSE) System.out.printf("[doublehash][%s] m=%d, n=%d (load=%.3f)%n", hashName, m, n, n/(double)m);
+
+            int[] data = dataset(n);
+
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableDoubleHashing table = new HashTableDoubleHashing(m, h1, MAX_LOAD, REHASH_SLICE);
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            int progressStep = Math.max(1, n / 10);
+            int cnt = 0;
+            for (int x : data) {
+                table.insert(x);
+                if (VERBOSE && (++cnt % progressStep == 0)) {
+                    System.out.printf("  insert %d/%d%n", cnt, n);
+                }
+            }
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            log(out, runId, "doublehash", m, hashName, n, "insert", "time_ns", t1 - t0);
+            log(out, runId, "doublehash", m, hashName, n, "insert", "collisions", table.getCollisions());
+            log(out, runId, "doublehash", m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, "doublehash", m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+            if (MAX_LOAD > 0) {
+                log(out, runId, "doublehash", m, hashName, n, "insert", "resizes", table.getResizes());
+                log(out, runId, "doublehash", m, hashName, n, "insert", "capacity_final", table.capacity());
+            }
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (doublehash)!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, "doublehash", m, hashName, n, "search", "time_ns", b1 - b0);
+
+            if (BULK_PHASE) {
+                HashTableDoubleHashing bulk = new HashTableDoubleHashing(m, h1, MAX_LOAD, REHASH_SLICE);
+                long k0 = System.nanoTime();
+                bulk.bulkInsert(data);
+                long k1 = System.nanoTime();
+                if (bulk.size() != table.size()) throw new AssertionError("bulkInsert difere da inserção sequencial (doublehash)!");
+                for (int x : data) {
+                    if (!bulk.contains(x)) throw new AssertionError("Falha na busca após bulkInsert (doublehash)!");
+                }
+                log(out, runId, "doublehash", m, hashName, n, "bulk_insert", "time_ns", k1 - k0);
+                if (MAX_LOAD <= 0) log(out, runId, "doublehash", m, hashName, n, "bulk_insert", "collisions", bulk.getCollisions());
+            }
+
+            HashTableDoubleHashing.GapStats gs = table.gapStats();
+            log(out, runId, "doublehash", m, hashName, n, "gaps", "min", gs.min);
+            log(out, runId, "doublehash", m, hashName, n, "gaps", "avg", gs.avg);
+            log(out, runId, "doublehash", m, hashName, n, "gaps", "max", gs.max);
+
+            if (OP_STATS) {
+                HashTableDoubleHashing t = new HashTableDoubleHashing(m, h1, MAX_LOAD, REHASH_SLICE);
+                runOpStats(out, runId, "doublehash", m, hashName, n, data, t::insertProbeCount, t::probeCount, t::contains);
+            }
+
+            if (EXPORT_PHASE) {
+                long e0 = System.nanoTime();
+                long exported = table.exportCodes(OutputStream.nullOutputStream());
+                logExport(out, runId, "doublehash", m, hashName, n, System.nanoTime() - e0, exported, table.size());
+            }
+
+            if (SNAPSHOT_DIR != null) {
+                Path file = snapshotFile("doublehash", hashName, m, n);
+                long w0 = System.nanoTime();
+                table.save(file);
+                long w1 = System.nanoTime();
+                HashTableDoubleHashing loaded = HashTableDoubleHashing.load(file);
+                long w2 = System.nanoTime();
+                if (loaded.size() != table.size()) throw new AssertionError("Falha no load (doublehash)!");
+                logSnapshot(out, runId, "doublehash", m, hashName, n, w1 - w0, w2 - w1, file);
+            }
+
+            if (DELETE_PHASE) {
+                int half = n / 2;
+                long d0 = System.nanoTime();
+                for (int i = 0; i < half; i++) {
+                    if (!table.remove(data[i])) throw new AssertionError("Falha na remoção (doublehash)!");
+                }
+                long d1 = System.nanoTime();
+                log(out, runId, "doublehash", m, hashName, n, "delete", "time_ns", d1 - d0);
+                log(out, runId, "doublehash", m, hashName, n, "delete", "tombstones", table.getTombstones());
+                log(out, runId, "doublehash", m, hashName, n, "delete", "cleanups", table.getCleanups());
+
+                long s0 = System.nanoTime();
+                for (int i = half; i < n; i++) {
+                    if (!table.contains(data[i])) throw new AssertionError("Falha na busca após remoção (doublehash)!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, "doublehash", m, hashName, n, "search_after_delete", "time_ns", s1 - s0);
+            }
+        }
+    }
+
+    private static void runSwiss(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        String type = csvType("swiss");
+        for (int n : sizes) {
+            if (VERBOSE) System.out.printf("[%s][%s] m=%d, n=%d (load=%.3f)%n", type, hashName, m, n, n/(double)m);
+
+            int[] data = dataset(n);
+
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableSwiss table = new HashTableSwiss(m, h);
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            int progressStep = Math.max(1, n / 10);
+            int cnt = 0;
+            for (int x : data) {
+                table.insert(x);
+                if (VERBOSE && (++cnt % progressStep == 0)) {
+                    System.out.printf("  insert %d/%d%n", cnt, n);
+                }
+            }
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            log(out, runId, type, m, hashName, n, "insert", "time_ns", t1 - t0);
+            log(out, runId, type, m, hashName, n, "insert", "collisions", table.getCollisions());
+            log(out, runId, type, m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, type, m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (swiss)!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, type, m, hashName, n, "search", "time_ns", b1 - b0);
+
+            HashTableSwiss.GapStats gs = table.gapStats();
+            log(out, runId, type, m, hashName, n, "gaps", "min", gs.min);
+            log(out, runId, type, m, hashName, n, "gaps", "avg", gs.avg);
+            log(out, runId, type, m, hashName, n, "gaps", "max", gs.max);
+
+            if (OP_STATS) {
+                HashTableSwiss t = new HashTableSwiss(m, h);
+                runOpStats(out, runId, type, m, hashName, n, data, t::insertProbeCount, t::probeCount, t::contains);
+            }
+
+            if (EXPORT_PHASE) {
+                long e0 = System.nanoTime();
+                long exported = table.exportCodes(OutputStream.nullOutputStream());
+                logExport(out, runId, type, m, hashName, n, System.nanoTime() - e0, exported, table.size());
+            }
+
+            if (SNAPSHOT_DIR != null) {
+                Path file = snapshotFile(type, hashName, m, n);
+                long w0 = System.nanoTime();
+                table.save(file);
+                long w1 = System.nanoTime();
+                HashTableSwiss loaded = HashTableSwiss.load(file);
+                long w2 = System.nanoTime();
+                if (loaded.size() != table.size()) throw new AssertionError("Falha no load (swiss)!");
+                logSnapshot(out, runId, type, m, hashName, n, w1 - w0, w2 - w1, file);
+            }
+
+            if (DELETE_PHASE) {
+                int half = n / 2;
+                long d0 = System.nanoTime();
+                for (int i = 0; i < half; i++) {
+                    if (!table.remove(data[i])) throw new AssertionError("Falha na remoção (swiss)!");
+                }
+                long d1 = System.nanoTime();
+                log(out, runId, type, m, hashName, n, "delete", "time_ns", d1 - d0);
+
+                long s0 = System.nanoTime();
+                for (int i = half; i < n; i++) {
+                    if (!table.contains(data[i])) throw new AssertionError("Falha na busca após remoção (swiss)!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, type, m, hashName, n, "search_after_delete", "time_ns", s1 - s0);
+            }
+        }
+    }
+
+    // Insere e busca as chaves do arquivo janela por janela; nenhum int[] com o dataset
+    private static void runStream(MetricsSink out, int runId, String type, int m, String hashName, HashStrategy h,
+                                  Path file) throws IOException {
+        long count = DatasetFile.count(file);
+        if (count > Integer.MAX_VALUE) throw new IOException("Dataset com mais de 2^31 chaves: " + file);
+        int n = (int) count;
+        // chaining, swiss e cuckoo crescem; linear/double só com --grow
+        boolean fixedSize = type.equals("robinhood")
+                || ((type.equals("linear") || type.equals("doublehash")) && MAX_LOAD <= 0);
+        if (fixedSize && n >= m) return; // inviável; fator de carga >= 1
+        if (VERBOSE) System.out.printf("[%s-stream][%s] m=%d, n=%d, %s%n", type, hashName, m, n, file);
+
+        HashTableChaining chain = null;
+        HashTableLinearProbing lin = null;
+        HashTableDoubleHashing dbl = null;
+        HashTableRobinHood robin = null;
+        HashTableSwiss swiss = null;
+        HashTableCuckoo cuckoo = null;
+        switch (type) {
+            case "chaining":   chain = new HashTableChaining(m, h, Math.min(n, 1 << 20), MAX_AVG_CHAIN); break;
+            case "linear":     lin = new HashTableLinearProbing(m, h, MAX_LOAD, REHASH_SLICE, BACKWARD_SHIFT); break;
+            case "doublehash": dbl = new HashTableDoubleHashing(m, h, MAX_LOAD, REHASH_SLICE); break;
+            case "robinhood":  robin = new HashTableRobinHood(m, h); break;
+            case "swiss":      swiss = new HashTableSwiss(m, h); break;
+            default:           cuckoo = new HashTableCuckoo(m, h, CUCKOO_WAYS); break;
+        }
+
+        try (DatasetFile.Reader r = DatasetFile.open(file)) {
+            IntBuffer w;
+            long t0 = System.nanoTime();
+            while ((w = r.nextWindow()) != null) {
+                switch (type) {
+                    case "chaining":   while (w.hasRemaining()) chain.insert(w.get()); break;
+                    case "linear":     while (w.hasRemaining()) lin.insert(w.get()); break;
+                    case "doublehash": while (w.hasRemaining()) dbl.insert(w.get()); break;
+                    case "robinhood":  while (w.hasRemaining()) robin.insert(w.get()); break;
+                    case "swiss":      while (w.hasRemaining()) swiss.insert(w.get()); break;
+                    default:           while (w.hasRemaining()) cuckoo.insert(w.get()); break;
+                }
+            }
+            long t1 = System.nanoTime();
+            log(out, runId, csvType(type), m, hashName, n, "stream_insert", "time_ns", t1 - t0);
+
+            r.rewind();
+            boolean ok = true;
+            long b0 = System.nanoTime();
+            while ((w = r.nextWindow()) != null) {
+                switch (type) {
+                    case "chaining":   while (w.hasRemaining()) ok &= chain.contains(w.get()); break;
+                    case "linear":     while (w.hasRemaining()) ok &= lin.contains(w.get()); break;
+                    case "doublehash": while (w.hasRemaining()) ok &= dbl.contains(w.get()); break;
+                    case "robinhood":  while (w.hasRemaining()) ok &= robin.contains(w.get()); break;
+                    case "swiss":      while (w.hasRemaining()) ok &= swiss.contains(w.get()); break;
+                    default:           while (w.hasRemaining()) ok &= cuckoo.contains(w.get()); break;
+                }
+            }
+            long b1 = System.nanoTime();
+            if (!ok) throw new AssertionError("Falha na busca (" + type + ", stream)!");
+            log(out, runId, csvType(type), m, hashName, n, "stream_search", "time_ns", b1 - b0);
+        }
+    }
+
+    private static void runIngest(MetricsSink out, int runId, String type, int m, String hashName, HashStrategy h,
+                                  int[] dataSizes) throws IOException {
+        int[] sizes = STREAM_FILE != null ? new int[]{ (int) DatasetFile.count(Paths.get(STREAM_FILE)) } : dataSizes;
+        for (int n : sizes) {
+            boolean fixedSize = type.equals("robinhood")
+                    || ((type.equals("linear") || type.equals("doublehash")) && MAX_LOAD <= 0);
+            if (fixedSize && n >= m) continue; // inviável; fator de carga >= 1
+            if (VERBOSE) System.out.printf("[%s-ingest][%s] m=%d, n=%d, lote=%d%n", type, hashName, m, n, INGEST_BATCH);
+
+            // cada Sink tem o próprio laço, então a chamada a insert continua monomórfica
+            IngestPipeline.Sink sink;
+            switch (type) {
+                case "chaining": {
+                    HashTableChaining t = new HashTableChaining(m, h, Math.min(n, 1 << 20), MAX_AVG_CHAIN);
+                    sink = (keys, len) -> { for (int i = 0; i < len; i++) t.insert(keys[i]); };
+                    break;
+                }
+                case "linear": {
+                    HashTableLinearProbing t = new HashTableLinearProbing(m, h, MAX_LOAD, REHASH_SLICE, BACKWARD_SHIFT);
+                    sink = (keys, len) -> { for (int i = 0; i < len; i++) t.insert(keys[i]); };
+                    break;
+                }
+                case "doublehash": {
+                    HashTableDoubleHashing t = new HashTableDoubleHashing(m, h, MAX_LOAD, REHASH_SLICE);
+                    sink = (keys, len) -> { for (int i = 0; i < len; i++) t.insert(keys[i]); };
+                    break;
+                }
+                case "robinhood": {
+                    HashTableRobinHood t = new HashTableRobinHood(m, h);
+                    sink = (keys, len) -> { for (int i = 0; i < len; i++) t.insert(keys[i]); };
+                    break;
+                }
+                case "swiss": {
+                    HashTableSwiss t = new HashTableSwiss(m, h);
+                    sink = (keys, len) -> { for (int i = 0; i < len; i++) t.insert(keys[i]); };
+                    break;
+                }
+                default: {
+                    HashTableCuckoo t = new HashTableCuckoo(m, h, CUCKOO_WAYS);
+                    sink = (keys, len) -> { for (int i = 0; i < len; i++) t.insert(keys[i]); };
+                    break;
+                }
+            }
+
+            IngestPipeline.Reporter reporter = !VERBOSE ? null : (elapsed, keys, rejected, windowOps, lat) ->
+                    System.out.printf("  %.1fs: %d chaves (%d rejeitadas), %.0f ops/s, lote p50=%dns p99=%dns%n",
+                            elapsed / 1e9, keys, rejected, windowOps, lat.percentile(0.50), lat.percentile(0.99));
+            IngestPipeline p = new IngestPipeline(INGEST_BATCH, 1_000_000_000L);
+            if (STREAM_FILE != null) {
+                try (FileChannel ch = FileChannel.open(Paths.get(STREAM_FILE), StandardOpenOption.READ)) {
+                    p.run(IngestPipeline.fromChannel(ch, INGEST_BATCH), sink, reporter);
+                }
+            } else {
+                // mesma sequência de generateDataset, sem montar o int[]; as outras distribuições
+                // percorrem o vetor já compartilhado do DatasetCache
+                PrimitiveIterator.OfInt keys = KEYS == DatasetCache.Distribution.RANDOM
+                        ? new Random(SEED + n).ints(n, 0, 1_000_000_000).iterator()
+                        : Arrays.stream(dataset(n)).iterator();
+                p.run(IngestPipeline.fromIterator(keys), sink, reporter);
+            }
+
+            LatencyHistogram lat = p.batchLatency();
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "time_ns", p.elapsedNs());
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "keys", p.keys());
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "rejected", p.rejected());
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "ops_per_s", p.keys() * 1_000_000_000L / Math.max(1, p.elapsedNs()));
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "batch_p50_ns", lat.percentile(0.50));
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "batch_p90_ns", lat.percentile(0.90));
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "batch_p99_ns", lat.percentile(0.99));
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "batch_p999_ns", lat.percentile(0.999));
+            log(out, runId, csvType(type), m, hashName, n, "ingest", "batch_max_ns", lat.max());
+        }
+    }
+
+    // table_type das linhas do CSV: a swiss leva o matcher do grupo (swiss_vector ou
+    // swiss_swar), que depende da JVM ter jdk.incubator.vector e muda os tempos
+    private static String csvType(String type) {
+        return type.equals("swiss") ? "swiss_" + HashTableSwiss.matcherName() : type;
+    }
+
+    // Arquivo vazio com nome único: repetições da mesma célula rodam juntas em --parallel/--fork
+    private static Path snapshotFile(String tableType, String hashName, int m, int n) throws IOException {
+        return cellFile(SNAPSHOT_DIR, tableType, hashName, m, n, ".snap");
+    }
+
+    private static Path cellFile(String dir, String tableType, String hashName, int m, int n, String suffix)
+            throws IOException {
+        Path d = Paths.get(dir);
+        Files.createDirectories(d);
+        return Files.createTempFile(d, tableType + "_" + hashName.replace('+', '_') + "_" + m + "_" + n + "_", suffix);
+    }
+
+    // Fase de --opstats: monta outra tabela cronometrando cada operação (nanoTime, o que inclui
+    // o custo do próprio relógio) e registrando o comprimento da sondagem, para os percentis.
+    // As fases medidas acima não mudam: a instrumentação só existe aqui.
+    private static void runOpStats(MetricsSink out, int runId, String type, int m, String hashName, int n, int[] data,
+                                   IntUnaryOperator insertProbes, IntUnaryOperator probeCount,
+                                   IntPredicate contains) throws IOException {
+        LatencyHistogram lat = new LatencyHistogram();
+        LatencyHistogram probes = new LatencyHistogram();
+        for (int x : data) {
+            long t0 = System.nanoTime();
+            int p = insertProbes.applyAsInt(x); // só as posições da própria chave (ver insertProbeCount)
+            lat.record(System.nanoTime() - t0);
+            probes.record(p);
+        }
+        logPercentiles(out, runId, type, m, hashName, n, "insert", lat, probes);
+
+        lat.reset();
+        probes.reset();
+        for (int x : data) {
+            long t0 = System.nanoTime();
+            boolean found = contains.test(x);
+            lat.record(System.nanoTime() - t0);
+            if (!found) throw new AssertionError("Falha na busca (" + type + ", opstats)!");
+            probes.record(probeCount.applyAsInt(x));
+        }
+        logPercentiles(out, runId, type, m, hashName, n, "search", lat, probes);
+    }
+
+    private static void logPercentiles(MetricsSink out, int runId, String type, int m, String hashName, int n,
+                                       String phase, LatencyHistogram lat, LatencyHistogram probes) throws IOException {
+        log(out, runId, type, m, hashName, n, phase, "latency_p50_ns", lat.percentile(0.50));
+        log(out, runId, type, m, hashName, n, phase, "latency_p90_ns", lat.percentile(0.90));
+        log(out, runId, type, m, hashName, n, phase, "latency_p99_ns", lat.percentile(0.99));
+        log(out, runId, type, m, hashName, n, phase, "latency_p999_ns", lat.percentile(0.999));
+        log(out, runId, type, m, hashName, n, phase, "latency_max_ns", lat.max());
+        log(out, runId, type, m, hashName, n, phase, "probes_p50", probes.percentile(0.50));
+        log(out, runId, type, m, hashName, n, phase, "probes_p90", probes.percentile(0.90));
+        log(out, runId, type, m, hashName, n, phase, "probes_p99", probes.percentile(0.99));
+        log(out, runId, type, m, hashName, n, phase, "probes_p999", probes.percentile(0.999));
+        log(out, runId, type, m, hashName, n, phase, "probes_max", probes.max());
+    }
+
+    private static void logExport(MetricsSink out, int runId, String tableType, int m, String hashName, int n,
+                                  long ns, long exported, long size) throws IOException {
+        log(out, runId, tableType, m, hashName, n, "export", "time_ns", ns);
+        log(out, runId, tableType, m, hashName, n, "export", "keys", exported);
+        // chaves guardadas que não são códigos de Registro (sentinelas, fora de 0..999.999.999)
+        log(out, runId, tableType, m, hashName, n, "export", "skipped_keys", size - exported);
+    }
+
+    // Registra save/load e apaga o arquivo (cada execução grava o seu)
+    private static void logSnapshot(MetricsSink out, int runId, String tableType, int m, String hashName, int n,
+                                    long saveNs, long loadNs, Path file) throws IOException {
+        log(out, runId, tableType, m, hashName, n, "save", "time_ns", saveNs);
+        log(out, runId, tableType, m, hashName, n, "save", "file_bytes", Files.size(file));
+        log(out, runId, tableType, m, hashName, n, "load", "time_ns", loadNs);
+        Files.delete(file);
+    }
+
+    private static void runOffHeap(MetricsSink out, int runId, int m, String hashName, HashStrategy h,
+                                   boolean doubleHashing, int[] sizes) throws IOException {
+        String type = doubleHashing ? "double_offheap" : "linear_offheap";
+        for (int n : sizes) {
+            if (n >= m) continue; // tamanho fixo; fator de carga >= 1 é inviável
+            if (VERBOSE) System.out.printf("[%s][%s] m=%d, n=%d (load=%.3f)%n", type, hashName, m, n, n/(double)m);
+
+            int[] data = dataset(n);
+            // arquivo vazio é tratado como tabela nova
+            Path file = OFFHEAP_DIR == null ? null : cellFile(OFFHEAP_DIR, type, hashName, m, n, ".bin");
+
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableOffHeap table = file == null ? new HashTableOffHeap(m, h, doubleHashing)
+                    : new HashTableOffHeap(file, m, h, doubleHashing);
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            for (int x : data) table.insert(x);
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            // footprint_bytes é o buffer fora do heap; allocated_bytes só vê o heap
+            log(out, runId, type, m, hashName, n, "insert", "time_ns", t1 - t0);
+            log(out, runId, type, m, hashName, n, "insert", "collisions", table.getCollisions());
+            log(out, runId, type, m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, type, m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (" + type + ")!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, type, m, hashName, n, "search", "time_ns", b1 - b0);
+
+            if (file != null) {
+                // reabre o arquivo como depois de reiniciar: nada é reinserido
+                table.close();
+                long r0 = System.nanoTime();
+                HashTableOffHeap reopened = new HashTableOffHeap(file, m, h, doubleHashing);
+                long r1 = System.nanoTime();
+                if (!reopened.isReopened() || reopened.size() != n) throw new AssertionError("Falha ao reabrir (" + type + ")!");
+                long s0 = System.nanoTime();
+                for (int x : data) {
+                    if (!reopened.contains(x)) throw new AssertionError("Falha na busca após reabrir (" + type + ")!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, type, m, hashName, n, "reopen", "time_ns", r1 - r0);
+                log(out, runId, type, m, hashName, n, "search_after_reopen", "time_ns", s1 - s0);
+                reopened.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void runCuckoo(MetricsSink out, int runId, int m, String hashName, HashStrategy h, int[] sizes) throws IOException {
+        for (int n : sizes) {
+            if (VERBOSE) System.out.printf("[cuckoo][%s][%d-way] m=%d, n=%d (load=%.3f)%n", hashName, CUCKOO_WAYS, m, n, n/(double)m);
+
+            int[] data = dataset(n);
+
+            gcPause();
+            long alloc0 = Footprint.allocatedBytes();
+
+            HashTableCuckoo table = new HashTableCuckoo(m, h, CUCKOO_WAYS);
+            table.clearMetrics();
+            long t0 = System.nanoTime();
+            int progressStep = Math.max(1, n / 10);
+            int cnt = 0;
+            for (int x : data) {
+                table.insert(x);
+                if (VERBOSE && (++cnt % progressStep == 0)) {
+                    System.out.printf("  insert %d/%d%n", cnt, n);
+                }
+            }
+            long t1 = System.nanoTime();
+
+            long alloc1 = Footprint.allocatedBytes();
+
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "time_ns", t1 - t0);
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "collisions", table.getCollisions());
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "footprint_bytes", table.footprint());
+            if (alloc0 >= 0) log(out, runId, "cuckoo", m, hashName, n, "insert", "allocated_bytes", alloc1 - alloc0);
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "kicks", table.getKicks());
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "rehashes", table.getRehashes());
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "stash_size", table.getStashSize());
+            log(out, runId, "cuckoo", m, hashName, n, "insert", "capacity_final", table.capacity());
+
+            long b0 = System.nanoTime();
+            for (int x : data) {
+                if (!table.contains(x)) throw new AssertionError("Falha na busca (cuckoo)!");
+            }
+            long b1 = System.nanoTime();
+            log(out, runId, "cuckoo", m, hashName, n, "search", "time_ns", b1 - b0);
+
+            HashTableCuckoo.GapStats gs = table.gapStats();
+            log(out, runId, "cuckoo", m, hashName, n, "gaps", "min", gs.min);
+            log(out, runId, "cuckoo", m, hashName, n, "gaps", "avg", gs.avg);
+            log(out, runId, "cuckoo", m, hashName, n, "gaps", "max", gs.max);
+
+            if (OP_STATS) {
+                HashTableCuckoo t = new HashTableCuckoo(m, h, CUCKOO_WAYS);
+                runOpStats(out, runId, "cuckoo", m, hashName, n, data, t::insertProbeCount, t::probeCount, t::contains);
+            }
+
+            if (EXPORT_PHASE) {
+                long e0 = System.nanoTime();
+                long exported = table.exportCodes(OutputStream.nullOutputStream());
+                logExport(out, runId, "cuckoo", m, hashName, n, System.nanoTime() - e0, exported, table.size());
+            }
+
+            if (SNAPSHOT_DIR != null) {
+                Path file = snapshotFile("cuckoo", hashName, m, n);
+                long w0 = System.nanoTime();
+                table.save(file);
+                long w1 = System.nanoTime();
+                HashTableCuckoo loaded = HashTableCuckoo.load(file);
+                long w2 = System.nanoTime();
+                if (loaded.size() != table.size()) throw new AssertionError("Falha no load (cuckoo)!");
+                logSnapshot(out, runId, "cuckoo", m, hashName, n, w1 - w0, w2 - w1, file);
+            }
+
+            if (DELETE_PHASE) {
+                // cuckoo é conjunto: chave repetida no dataset só sai uma vez, e depois de
+                // removida some de vez — então a busca de controle é pelas chaves removidas
+                int half = n / 2;
+                long d0 = System.nanoTime();
+                for (int i = 0; i < half; i++) table.remove(data[i]);
+                long d1 = System.nanoTime();
+                log(out, runId, "cuckoo", m, hashName, n, "delete", "time_ns", d1 - d0);
+
+                long s0 = System.nanoTime();
+                for (int i = 0; i < half; i++) {
+                    if (table.contains(data[i])) throw new AssertionError("Chave removida ainda presente (cuckoo)!");
+                }
+                long s1 = System.nanoTime();
+                log(out, runId, "cuckoo", m, hashName, n, "search_removed", "time_ns", s1 - s0);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package hash;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executa as células da varredura de ExperimentRunner (tipo, m, hash, n,
+ * repetição) em paralelo, com no máximo `workers` ao mesmo tempo:
+ *  - em threads de um pool fixo (mais vazão; as células disputam CPU, cache e GC);
+ *  - ou cada uma numa JVM filha (hash.Main com os mesmos argumentos e --job=i),
+ *    que mede isolada, como a execução sequencial.
+ *
+ * Cada célula grava num arquivo binário próprio (MetricsSink.binary) e o
+ * resultado é copiado para o sink principal na ordem da lista, conforme as
+ * células terminam. Os run_id já vêm fixados na lista, então o CSV final tem as
+ * mesmas linhas, na mesma ordem, da execução sequencial; só os tempos mudam.
+ */
+final class ExperimentScheduler {
+
+    interface Body {
+        void run(MetricsSink out) throws IOException;
+    }
+
+    static final class Job {
+        final int index;
+        final int rep;
+        final String label;
+        final Body body;
+
+        Job(int index, int rep, String label, Body body) {
+            this.index = index;
+            this.rep = rep;
+            this.label = label;
+            this.body = body;
+        }
+    }
+
+    private ExperimentScheduler() {}
+
+    // Células em threads; cada uma roda body num sink próprio
+    static void runThreads(List<Job> jobs, int workers, MetricsSink out, boolean verbose) throws IOException {
+        run(jobs, workers, out, null, verbose);
+    }
+
+    // Células em JVMs filhas; childArgs são os argumentos de hash.Main sem --fork/--parallel
+    static void runForked(List<Job> jobs, int workers, MetricsSink out, List<String> childArgs,
+                          boolean verbose) throws IOException {
+        run(jobs, workers, out, childArgs, verbose);
+    }
+
+    private static void run(List<Job> jobs, int workers, MetricsSink out, List<String> childArgs,
+                            boolean verbose) throws IOException {
+        Path tmp = Files.createTempDirectory("hash-jobs");
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        try {
+            List<Future<Path>> results = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                Path file = tmp.resolve("job_" + job.index + ".bin");
+                results.add(pool.submit(() -> {
+                    if (childArgs == null) {
+                        try (MetricsSink s = MetricsSink.binary(file)) {
+                            job.body.run(s);
+                        }
+                    } else {
+                        fork(job, file, childArgs, verbose);
+                    }
+                    return file;
+                }));
+            }
+            // junta na ordem da lista; uma célula lenta só atrasa a cópia, não as outras
+            for (int i = 0; i < jobs.size(); i++) {
+                Path file = await(results.get(i), jobs.get(i));
+                MetricsSink.copy(file, out);
+                Files.delete(file);
+                if (verbose) System.out.printf("[scheduler] %d/%d %s%n", i + 1, jobs.size(), jobs.get(i).label);
+            }
+        } finally {
+            pool.shutdownNow();
+            try (var files = Files.list(tmp)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Path await(Future<Path> f, Job job) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido esperando a célula " + job.label, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Falha na célula " + job.label, e.getCause());
+        }
+    }
+
+    private static void fork(Job job, Path file, List<String> childArgs, boolean verbose)
+            throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments()); // -Xmx, --add-modules...
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(Main.class.getName());
+        cmd.addAll(childArgs);
+        cmd.add("--job=" + job.index);
+        cmd.add("--job-out=" + file);
+        ProcessBuilder pb = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT);
+        pb.redirectOutput(verbose ? ProcessBuilder.Redirect.INHERIT : ProcessBuilder.Redirect.DISCARD);
+        Process p = pb.start();
+        int code;
+        try {
+            code = p.waitFor();
+        } catch (InterruptedException e) { // outra célula falhou: não deixa a filha órfã
+            p.destroyForcibly();
+            throw e;
+        }
+        if (code != 0) throw new IOException("JVM filha da célula " + job.label + " terminou com código " + code);
+        if (!Files.exists(file)) throw new IOException("JVM filha da célula " + job.label + " não gravou " + file);
+    }
+}
@@ -0,0 +1,96 @@
+package hash;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Tamanho retido dos vetores das tabelas, contado em vez de medido:
+ * cabeçalho do vetor + comprimento × tamanho do elemento, arredondado para o
+ * alinhamento de objetos da JVM. Os tamanhos de cabeçalho e de referência vêm das
+ * opções da HotSpot (UseCompressedOops, UseCompressedClassPointers,
+ * ObjectAlignmentInBytes); fora da HotSpot vale o padrão de um heap < 32 GB.
+ *
+ * allocatedBytes() é o contador de bytes alocados pela thread atual
+ * (com.sun.management.ThreadMXBean), usado para conferir o footprint: a
+ * diferença em volta de uma fase inclui também o lixo (vetores trocados no
+ * crescimento, buffers temporários).
+ */
+final class Footprint {
+    static final int REF_BYTES;
+    static final int OBJECT_HEADER;
+    static final int ARRAY_HEADER;
+    static final int ALIGN;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOC_SUPPORTED;
+
+    static {
+        boolean oops = true, klass = true;
+        int align = 8;
+        try {
+            HotSpotDiagnosticMXBean hs = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            oops = Boolean.parseBoolean(hs.getVMOption("UseCompressedOops").getValue());
+            klass = Boolean.parseBoolean(hs.getVMOption("UseCompressedClassPointers").getValue());
+            align = Integer.parseInt(hs.getVMOption("ObjectAlignmentInBytes").getValue());
+        } catch (RuntimeException ignored) {
+            // outra JVM: fica o padrão
+        }
+        REF_BYTES = oops ? 4 : 8;
+        OBJECT_HEADER = klass ? 12 : 16;  // mark word + ponteiro de classe
+        ARRAY_HEADER = klass ? 16 : 24;   // + comprimento, dados alinhados a 8
+        ALIGN = align;
+
+        boolean alloc = false;
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) THREADS;
+            try {
+                if (t.isThreadAllocatedMemorySupported()) {
+                    if (!t.isThreadAllocatedMemoryEnabled()) t.setThreadAllocatedMemoryEnabled(true);
+                    alloc = true;
+                }
+            } catch (UnsupportedOperationException ignored) {
+                // fica desligado
+            }
+        }
+        ALLOC_SUPPORTED = alloc;
+    }
+
+    private Footprint() {}
+
+    static long align(long bytes) {
+        return (bytes + ALIGN - 1) / ALIGN * ALIGN;
+    }
+
+    static long array(long length, int elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    static long of(int[] a) {
+        return a == null ? 0 : array(a.length, 4);
+    }
+
+    static long of(byte[] a) {
+        return a == null ? 0 : array(a.length, 1);
+    }
+
+    // Vetor segmentado: o vetor de referências mais cada segmento alocado
+    static long of(int[][] segs) {
+        if (segs == null) return 0;
+        long sum = array(segs.length, REF_BYTES);
+        for (int[] s : segs) sum += of(s);
+        return sum;
+    }
+
+    // Objeto com fieldBytes de campos (sem contar o que eles referenciam)
+    static long object(int fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    // Bytes alocados até agora pela thread atual, ou -1 se a JVM não conta
+    static long allocatedBytes() {
+        if (!ALLOC_SUPPORTED) return -1;
+        return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+    }
+}
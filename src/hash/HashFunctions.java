@@ -0,0 +1,101 @@
+package hash;
+
+import java.util.function.IntUnaryOperator;
+
+public final class HashFunctions {
+    private HashFunctions() {}
+
+    // h1: resto da divisão por m (típico)
+    public static int modPrime(int key, int m) {
+        int k = key >= 0 ? key : -key;
+        return k % m;
+    }
+
+    // h2: multiplicação (Knuth/A = (sqrt(5)-1)/2 aprox 0.618...), depois floor(m * frac(k*A))
+    public static int multiplicacao(int key, int m) {
+        final double A = 0.6180339887498949;
+        int k = key >= 0 ? key : -key;
+        double frac = (k * A) % 1.0;
+        return (int) Math.floor(m * frac);
+    }
+
+    // h3: misturador simples (xorshift leve) + mod m
+    public static int mixMod(int key, int m) {
+        int x = key;
+        x ^= (x << 13);
+        x ^= (x >>> 17);
+        x ^= (x << 5);
+        x = x >= 0 ? x : -x;
+        return x % m;
+    }
+
+    // h4: finalizador do murmur3 (fmix32) — avalanche completa, então os bits baixos
+    // já são bons e com m potência de 2 basta a máscara; senão, redução multiplicativa
+    public static int fmix32(int key, int m) {
+        int x = fmix32(key);
+        if ((m & (m - 1)) == 0) return x & (m - 1);
+        return (int) (((x & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+    // h5: Fibonacci hashing (multiply-shift): usa os bits altos de k * 2^32/phi.
+    // Com m = 2^b é exatamente k * A >>> (32 - b); para outro m, reduz pelo produto de 64 bits.
+    public static int fibonacci(int key, int m) {
+        int x = key * 0x9E3779B9;
+        return (int) (((x & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+    public static int fmix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Para Hash Duplo: segunda hash não pode dar 0; usa m primo
+    public static int doubleHashSecondary(int key, int m) {
+        // 1 + (k mod (m-1)) garante no mínimo 1
+        int k = key >= 0 ? key : -key;
+        return 1 + (k % (m - 1));
+    }
+
+    // Hash Duplo com m potência de 2: o passo precisa ser ímpar para ser coprimo com m
+    public static int doubleHashSecondaryPow2(int key, int mask) {
+        return (fmix32(key ^ 0x5BD1E995) | 1) & mask;
+    }
+
+    // Menor primo >= n (tamanho da tabela ao crescer no modo primo)
+    public static int nextPrime(int n) {
+        if (n <= 2) return 2;
+        int p = n | 1;
+        while (!isPrime(p)) p += 2;
+        return p;
+    }
+
+    private static boolean isPrime(int p) {
+        if (p % 2 == 0) return p == 2;
+        for (int d = 3; (long) d * d <= p; d += 2) {
+            if (p % d == 0) return false;
+        }
+        return true;
+    }
+
+    // Versões como IntUnaryOperator, para quem precisa de uma função de primeira classe.
+    // As tabelas usam HashStrategy, que evita a chamada megamórfica.
+    public static IntUnaryOperator modPrime(int m) {
+        return (int key) -> modPrime(key, m);
+    }
+
+    public static IntUnaryOperator multiplicacao(int m) {
+        return (int key) -> multiplicacao(key, m);
+    }
+
+    public static IntUnaryOperator mixMod(int m) {
+        return (int key) -> mixMod(key, m);
+    }
+
+    public static IntUnaryOperator doubleHashSecondary(int m) {
+        return (int key) -> doubleHashSecondary(key, m);
+    }
+}
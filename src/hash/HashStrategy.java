@@ -0,0 +1,58 @@
+package hash;
+
+/**
+ * Conjunto fechado de funções hash usadas pelas tabelas.
+ * O despacho é um switch sobre a constante (tableswitch) chamando métodos estáticos
+ * de HashFunctions: todos os ramos são inlinados e, como cada tabela guarda uma única
+ * estratégia, o branch é sempre o mesmo — diferente do IntUnaryOperator, cuja chamada
+ * vira megamórfica quando três lambdas passam pela mesma classe de tabela.
+ */
+public enum HashStrategy {
+    MOD(0, "mod"),
+    MUL(1, "mul"),
+    MIX(2, "mix"),
+    FMIX(3, "fmix"),
+    FIB(4, "fib");
+
+    private final int id;
+    private final String csvName;
+
+    HashStrategy(int id, String csvName) {
+        this.id = id;
+        this.csvName = csvName;
+    }
+
+    // identificador gravado nos arquivos binários; não muda se a ordem do enum mudar
+    public int id() {
+        return id;
+    }
+
+    public static HashStrategy fromId(int id) {
+        for (HashStrategy s : values()) {
+            if (s.id == id) return s;
+        }
+        throw new IllegalArgumentException("Id de função hash desconhecido: " + id);
+    }
+
+    // nome usado na coluna hash_name do CSV
+    public String csvName() {
+        return csvName;
+    }
+
+    public int index(int key, int m) {
+        switch (this) {
+            case MOD: return HashFunctions.modPrime(key, m);
+            case MUL: return HashFunctions.multiplicacao(key, m);
+            case MIX: return HashFunctions.mixMod(key, m);
+            case FMIX: return HashFunctions.fmix32(key, m);
+            default:  return HashFunctions.fibonacci(key, m);
+        }
+    }
+
+    public static HashStrategy fromName(String name) {
+        for (HashStrategy s : values()) {
+            if (s.csvName.equals(name)) return s;
+        }
+        throw new IllegalArgumentException("Função hash desconhecida: " + name);
+    }
+}
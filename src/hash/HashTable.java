@@ -1,3 +1,5 @@
+package hash;
+
 interface HashTable {
     void clear();
     void insert(Registro r);
@@ -0,0 +1,389 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Encadeamento separado usando ARRAYS para nós (sem objetos por elemento):
+ * - head[bucket] guarda índice do primeiro nó, ou -1
+ * - next[idx] encadeia nós
+ * - keys[idx] armazena o código
+ *
+ * keys/next são segmentados em blocos de SEG_SIZE nós: o pool cresce alocando
+ * um bloco novo, sem copiar os anteriores. Com maxAvgChain > 0 o vetor de buckets
+ * é refeito (2m, ou próximo primo >= 2m) quando size / m passa desse valor.
+ * Nós removidos vão para uma lista livre (encadeada pelo próprio next[]) e são
+ * reaproveitados pela próxima inserção.
+ *
+ * bulkInsert monta o lote em paralelo: as chaves são espalhadas por faixa de
+ * buckets (BulkPartition) e cada faixa recebe um bloco contíguo de nós do pool,
+ * então as tarefas não disputam nem head[] nem o contador de nós.
+ *
+ * As estatísticas de estrutura são mantidas a cada insert/remove, sem varrer
+ * as listas: chainLen[b] (comprimento de cada lista), lenCount[L] (quantos
+ * buckets têm comprimento L, para o top-3 e o máximo) e um OccupancyBitset dos
+ * buckets não vazios (ocupação em O(1), gaps em O(m/64 + ocupados)).
+ *
+ * save/load gravam head[], o pool de nós (só os nodeCount usados) e a lista
+ * livre num SnapshotFile; o load copia os vetores em bloco, sem reinserir.
+ */
+public class HashTableChaining {
+    private static final int SEG_SHIFT = 16;
+    private static final int SEG_SIZE = 1 << SEG_SHIFT;
+    private static final int SEG_MASK = SEG_SIZE - 1;
+
+    private int m; // tamanho vetor buckets
+    private int[] head;
+    private int[][] next;
+    private int[][] keys;
+    private final HashStrategy h;
+    private int nodeCount = 0; // nós já usados do pool (inclui os da lista livre)
+    private int size = 0;
+    private int freeHead = -1;
+
+    // Estatísticas incrementais (ver chainGrew/chainShrank)
+    private int[] chainLen;
+    private int[] lenCount = new int[16]; // lenCount[L] = buckets com L nós (L >= 1)
+    private int maxLen = 0;
+    private OccupancyBitset occupied;
+
+    // Crescimento do vetor de buckets
+    private final double maxAvgChain; // <= 0: m fixo
+    private long threshold;
+    private int resizes = 0;
+
+    // Métricas
+    private long collisions = 0;
+
+    public HashTableChaining(int m, HashStrategy hash, int capacity) {
+        this(m, hash, capacity, 0);
+    }
+
+    // capacity é só uma estimativa: o pool cresce sozinho
+    public HashTableChaining(int m, HashStrategy hash, int capacity, double maxAvgChain) {
+        this.m = m;
+        this.h = hash;
+        this.maxAvgChain = maxAvgChain;
+        this.head = new int[m];
+        Arrays.fill(this.head, -1);
+        int segs = Math.max(1, (capacity + SEG_MASK) >>> SEG_SHIFT);
+        this.keys = new int[segs][];
+        this.next = new int[segs][];
+        this.threshold = maxAvgChain > 0 ? (long) (maxAvgChain * m) : Long.MAX_VALUE;
+        this.chainLen = new int[m];
+        this.occupied = new OccupancyBitset(m);
+    }
+
+    // Reconstrói a partir de um snapshot (ver save)
+    private HashTableChaining(SnapshotFile.Reader r) throws IOException {
+        this.h = r.hash;
+        this.maxAvgChain = r.scalarDouble();
+        this.nodeCount = r.scalarInt();
+        this.size = r.scalarInt();
+        this.freeHead = r.scalarInt();
+        this.resizes = r.scalarInt();
+        this.m = r.m;
+        this.head = r.ints();
+        this.keys = r.segments(SEG_SHIFT, 1);
+        this.next = r.segments(SEG_SHIFT, keys.length);
+        this.threshold = maxAvgChain > 0 ? (long) (maxAvgChain * m) : Long.MAX_VALUE;
+        rebuildChainStats(); // o snapshot não grava as estatísticas
+    }
+
+    public static HashTableChaining load(Path file) throws IOException {
+        return new HashTableChaining(SnapshotFile.Reader.open(file, SnapshotFile.CHAINING));
+    }
+
+    public void save(Path file) throws IOException {
+        new SnapshotFile.Writer(SnapshotFile.CHAINING, m, h)
+                .scalar(maxAvgChain).scalar(nodeCount).scalar(size).scalar(freeHead).scalar(resizes)
+                .ints(head, m)
+                .segments(keys, SEG_SHIFT, nodeCount)
+                .segments(next, SEG_SHIFT, nodeCount)
+                .write(file);
+    }
+
+    public void clearMetrics() {
+        collisions = 0;
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return m; }
+    // Bytes retidos pelos vetores (ver Footprint); os campos escalares da tabela não entram
+    public long footprint() {
+        return Footprint.of(head) + Footprint.of(keys) + Footprint.of(next)
+                + Footprint.of(chainLen) + Footprint.of(lenCount) + occupied.footprint();
+    }
+    public int getResizes() { return resizes; }
+
+    public void insert(int key) {
+        if (size >= threshold) rehashBuckets();
+        int b = h.index(key, m);
+        int idx = allocNode();
+        int seg = idx >>> SEG_SHIFT, off = idx & SEG_MASK;
+        keys[seg][off] = key;
+        // colisões: se bucket já tem algo, cada passo na lista conta
+        int cur = head[b];
+        while (cur != -1) {
+            collisions++;
+            cur = next[cur >>> SEG_SHIFT][cur & SEG_MASK];
+        }
+        next[seg][off] = head[b];
+        head[b] = idx;
+        chainGrew(b);
+        size++;
+    }
+
+    // insert que devolve as posições tentadas para a própria chave: só o bucket, pois a
+    // chave entra na cabeça da lista (o percurso da lista em insert só conta colisões);
+    // para os percentis de --opstats
+    public int insertProbeCount(int key) {
+        insert(key);
+        return 1;
+    }
+
+    // Mesmo conteúdo (e mesmas listas, na mesma ordem) que chamar insert para cada chave.
+    // Com m fixo as colisões também são as mesmas; com maxAvgChain > 0 o vetor cresce
+    // antes e o lote inteiro é montado no m final, então contam menos colisões que a
+    // montagem sequencial, que passou pelos m menores
+    public void bulkInsert(int[] data) {
+        int n = data.length;
+        if (n == 0) return;
+        // cresce antes, até o m em que a montagem sequencial terminaria
+        while (size + n - 1 >= threshold) rehashBuckets();
+
+        BulkPartition p = BulkPartition.of(data, m, h, BulkPartition.regionsFor(m));
+        int base = nodeCount;
+        ensureNodes(base + n);
+        long[] regionCollisions = new long[p.regions];
+        IntStream.range(0, p.regions).parallel().forEach(r -> {
+            long coll = 0;
+            for (int i = p.start[r]; i < p.start[r + 1]; i++) {
+                int idx = base + i;
+                int seg = idx >>> SEG_SHIFT, off = idx & SEG_MASK;
+                int b = p.buckets[i];
+                keys[seg][off] = p.keys[i];
+                int cur = head[b];
+                while (cur != -1) {
+                    coll++;
+                    cur = next[cur >>> SEG_SHIFT][cur & SEG_MASK];
+                }
+                next[seg][off] = head[b];
+                head[b] = idx;
+            }
+            regionCollisions[r] = coll;
+        });
+        for (long c : regionCollisions) collisions += c;
+        // lenCount e o bitset são compartilhados entre as faixas: atualizados depois, em O(n)
+        for (int i = 0; i < n; i++) chainGrew(p.buckets[i]);
+        nodeCount += n;
+        size += n;
+    }
+
+    // Garante blocos alocados para os nós [0, nodes)
+    private void ensureNodes(int nodes) {
+        int segs = (nodes + SEG_MASK) >>> SEG_SHIFT;
+        if (segs > keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(segs, keys.length * 2));
+            next = Arrays.copyOf(next, keys.length);
+        }
+        for (int s = 0; s < segs; s++) {
+            if (keys[s] == null) {
+                keys[s] = new int[SEG_SIZE];
+                next[s] = new int[SEG_SIZE];
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        int b = h.index(key, m);
+        int prev = -1;
+        int cur = head[b];
+        while (cur != -1) {
+            int seg = cur >>> SEG_SHIFT, off = cur & SEG_MASK;
+            if (keys[seg][off] == key) {
+                int nxt = next[seg][off];
+                if (prev == -1) head[b] = nxt;
+                else next[prev >>> SEG_SHIFT][prev & SEG_MASK] = nxt;
+                next[seg][off] = freeHead;
+                freeHead = cur;
+                chainShrank(b);
+                size--;
+                return true;
+            }
+            prev = cur;
+            cur = next[seg][off];
+        }
+        return false;
+    }
+
+    public boolean contains(int key) {
+        int b = h.index(key, m);
+        int cur = head[b];
+        while (cur != -1) {
+            int seg = cur >>> SEG_SHIFT, off = cur & SEG_MASK;
+            if (keys[seg][off] == key) return true;
+            cur = next[seg][off];
+        }
+        return false;
+    }
+
+    // Nós visitados por contains(key); para as métricas de distribuição de sondagem
+    public int probeCount(int key) {
+        int probes = 0;
+        int cur = head[h.index(key, m)];
+        while (cur != -1) {
+            int seg = cur >>> SEG_SHIFT, off = cur & SEG_MASK;
+            probes++;
+            if (keys[seg][off] == key) return probes;
+            cur = next[seg][off];
+        }
+        return probes;
+    }
+
+    // contains para um lote: lê head[] de todo um grupo de chaves antes de
+    // percorrer as listas e avança cada lista pendente um nó por vez, intercalando
+    // as chaves para que as faltas de cache de listas diferentes se sobreponham
+    public void containsBatch(int[] data, boolean[] out) {
+        int[] cur = new int[BatchLookup.GROUP], idx = new int[BatchLookup.GROUP];
+        for (int from = 0; from < data.length; from += BatchLookup.GROUP) {
+            int end = Math.min(data.length, from + BatchLookup.GROUP);
+            int active = 0;
+            for (int i = from; i < end; i++) {
+                cur[active] = h.index(data[i], m);
+                idx[active++] = i;
+            }
+            for (int j = 0; j < active; j++) cur[j] = head[cur[j]];
+            while (active > 0) {
+                int w = 0;
+                for (int j = 0; j < active; j++) {
+                    int i = idx[j], c = cur[j];
+                    if (c == -1) { out[i] = false; continue; }
+                    int seg = c >>> SEG_SHIFT, off = c & SEG_MASK;
+                    if (keys[seg][off] == data[i]) { out[i] = true; continue; }
+                    cur[w] = next[seg][off]; idx[w++] = i;
+                }
+                active = w;
+            }
+        }
+    }
+
+    private int allocNode() {
+        if (freeHead != -1) {
+            int idx = freeHead;
+            freeHead = next[idx >>> SEG_SHIFT][idx & SEG_MASK];
+            return idx;
+        }
+        int idx = nodeCount++;
+        int seg = idx >>> SEG_SHIFT;
+        if (seg == keys.length) {
+            // só o vetor de referências aos blocos é copiado
+            keys = Arrays.copyOf(keys, seg * 2);
+            next = Arrays.copyOf(next, seg * 2);
+        }
+        if (keys[seg] == null) {
+            keys[seg] = new int[SEG_SIZE];
+            next[seg] = new int[SEG_SIZE];
+        }
+        return idx;
+    }
+
+    // Refaz só o vetor de buckets: os nós ficam onde estão, muda apenas o encadeamento
+    private void rehashBuckets() {
+        int newM = (m & (m - 1)) == 0 ? m << 1 : HashFunctions.nextPrime(2 * m);
+        int[] newHead = new int[newM];
+        Arrays.fill(newHead, -1);
+        for (int i = 0; i < m; i++) {
+            int cur = head[i];
+            while (cur != -1) {
+                int seg = cur >>> SEG_SHIFT, off = cur & SEG_MASK;
+                int nxt = next[seg][off];
+                int b = h.index(keys[seg][off], newM);
+                next[seg][off] = newHead[b];
+                newHead[b] = cur;
+                cur = nxt;
+            }
+        }
+        m = newM;
+        head = newHead;
+        threshold = (long) (maxAvgChain * m);
+        resizes++;
+        rebuildChainStats();
+    }
+
+    // Bucket b ganhou um nó: comprimento, histograma de comprimentos e ocupação
+    private void chainGrew(int b) {
+        int len = chainLen[b]++;
+        if (len == 0) occupied.set(b);
+        else lenCount[len]--;
+        if (len + 1 == lenCount.length) lenCount = Arrays.copyOf(lenCount, lenCount.length * 2);
+        lenCount[len + 1]++;
+        if (len + 1 > maxLen) maxLen = len + 1;
+    }
+
+    private void chainShrank(int b) {
+        int len = chainLen[b]--;
+        lenCount[len]--;
+        if (len == 1) occupied.clear(b);
+        else lenCount[len - 1]++;
+        while (maxLen > 0 && lenCount[maxLen] == 0) maxLen--;
+    }
+
+    // Recalcula tudo percorrendo as listas (load e troca do vetor de buckets, que já são O(m + n))
+    private void rebuildChainStats() {
+        chainLen = new int[m];
+        lenCount = new int[16];
+        maxLen = 0;
+        occupied = new OccupancyBitset(m);
+        for (int b = 0; b < m; b++) {
+            for (int cur = head[b]; cur != -1; cur = next[cur >>> SEG_SHIFT][cur & SEG_MASK]) chainGrew(b);
+        }
+    }
+
+    public int occupiedBuckets() { return occupied.count(); }
+    public int maxChainLength() { return maxLen; }
+
+    // Retorna os comprimentos das três maiores listas encadeadas (desc); lê só lenCount
+    public int[] top3ChainLengths() {
+        int[] top = new int[3];
+        int k = 0;
+        for (int len = maxLen; len > 0 && k < 3; len--) {
+            for (int c = lenCount[len]; c > 0 && k < 3; c--) top[k++] = len;
+        }
+        return top;
+    }
+
+    // Um código por linha via Registro.formatInto, sem alocar por chave; percorre as
+    // listas (o pool tem também os nós da lista livre)
+    public long exportCodes(OutputStream out) throws IOException {
+        CodeExporter ex = new CodeExporter(out);
+        for (int b = 0; b < m; b++) {
+            for (int cur = head[b]; cur != -1; cur = next[cur >>> SEG_SHIFT][cur & SEG_MASK]) {
+                ex.write(keys[cur >>> SEG_SHIFT][cur & SEG_MASK]);
+            }
+        }
+        return ex.finish();
+    }
+
+    // Gaps entre buckets ocupados no vetor de buckets, pelo bitset de ocupação
+    public GapStats bucketGapStats() {
+        OccupancyBitset.Gaps g = occupied.gaps(false);
+        return new GapStats(g.min(), g.avg(), g.max());
+    }
+
+    public static class GapStats {
+        public final int min;
+        public final double avg;
+        public final int max;
+        public GapStats(int min, double avg, int max) {
+            this.min = min; this.avg = avg; this.max = max;
+        }
+    }
+}
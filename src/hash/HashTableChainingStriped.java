@@ -0,0 +1,148 @@
+package hash;
+
+import java.util.Arrays;
+
+/**
+ * Encadeamento separado para várias threads, com o mesmo layout de arrays do
+ * HashTableChaining (head/next/keys, sem objeto por nó).
+ * O vetor de buckets é dividido em faixas contíguas; cada faixa (Stripe) tem seu
+ * próprio lock e seu próprio pool de nós, então threads que caem em faixas
+ * diferentes nunca disputam nada — nem o lock, nem o contador de nós. As faixas
+ * são alocadas lado a lado, então cada uma é preenchida (StripePad/Stripe) para
+ * que o cabeçalho (lock) e os campos de uma não dividam linha de cache com a vizinha.
+ * head[b] guarda o índice do nó dentro do pool da faixa de b.
+ */
+public class HashTableChainingStriped {
+    // segmentos menores que no HashTableChaining: o pool é dividido entre as faixas
+    private static final int SEG_SHIFT = 10;
+    private static final int SEG_SIZE = 1 << SEG_SHIFT;
+    private static final int SEG_MASK = SEG_SIZE - 1;
+
+    private final int m;
+    private final int[] head;
+    private final HashStrategy h;
+    private final Stripe[] stripes;
+
+    // Preenchimento por herança: a HotSpot põe os campos da superclasse antes dos da
+    // subclasse, então p* ficam entre o cabeçalho e os campos e q* depois deles,
+    // qualquer que seja a ordem escolhida dentro de cada classe
+    private static class StripePad {
+        long p0, p1, p2, p3, p4, p5, p6;
+    }
+
+    private static class StripeFields extends StripePad {
+        int[][] keys = new int[1][];
+        int[][] next = new int[1][];
+        int nodeCount = 0;
+        long collisions = 0;
+    }
+
+    private static final class Stripe extends StripeFields {
+        long q0, q1, q2, q3, q4, q5, q6;
+    }
+
+    public HashTableChainingStriped(int m, HashStrategy hash, int stripeCount) {
+        this.m = m;
+        this.h = hash;
+        this.head = new int[m];
+        Arrays.fill(head, -1);
+        this.stripes = new Stripe[Math.max(1, Math.min(stripeCount, m))];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe();
+    }
+
+    private Stripe stripeOf(int b) {
+        return stripes[(int) ((long) b * stripes.length / m)];
+    }
+
+    public void clearMetrics() {
+        for (Stripe s : stripes) {
+            synchronized (s) { s.collisions = 0; }
+        }
+    }
+
+    public long getCollisions() {
+        long sum = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) { sum += s.collisions; }
+        }
+        return sum;
+    }
+
+    public int size() {
+        int sum = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) { sum += s.nodeCount; }
+        }
+        return sum;
+    }
+
+    // Bytes retidos: head[], cada faixa (objeto + pool de nós); os campos escalares da tabela não entram
+    public long footprint() {
+        long sum = Footprint.of(head) + Footprint.array(stripes.length, Footprint.REF_BYTES);
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                sum += Footprint.object(2 * Footprint.REF_BYTES + 4 + 8 + 14 * 8) + Footprint.of(s.keys) + Footprint.of(s.next);
+            }
+        }
+        return sum;
+    }
+
+    public void insert(int key) {
+        int b = h.index(key, m);
+        Stripe s = stripeOf(b);
+        synchronized (s) {
+            int idx = s.nodeCount++;
+            int seg = idx >>> SEG_SHIFT, off = idx & SEG_MASK;
+            if (seg == s.keys.length) {
+                s.keys = Arrays.copyOf(s.keys, seg * 2);
+                s.next = Arrays.copyOf(s.next, seg * 2);
+            }
+            if (s.keys[seg] == null) {
+                s.keys[seg] = new int[SEG_SIZE];
+                s.next[seg] = new int[SEG_SIZE];
+            }
+            s.keys[seg][off] = key;
+            int cur = head[b];
+            while (cur != -1) {
+                s.collisions++;
+                cur = s.next[cur >>> SEG_SHIFT][cur & SEG_MASK];
+            }
+            s.next[seg][off] = head[b];
+            head[b] = idx;
+        }
+    }
+
+    public boolean contains(int key) {
+        int b = h.index(key, m);
+        Stripe s = stripeOf(b);
+        synchronized (s) {
+            int cur = head[b];
+            while (cur != -1) {
+                int seg = cur >>> SEG_SHIFT, off = cur & SEG_MASK;
+                if (s.keys[seg][off] == key) return true;
+                cur = s.next[seg][off];
+            }
+            return false;
+        }
+    }
+
+    // Retorna os comprimentos das três maiores listas encadeadas (desc); chamar sem escritas concorrentes
+    public int[] top3ChainLengths() {
+        int a = 0, b = 0, c = 0;
+        for (int i = 0; i < m; i++) {
+            Stripe s = stripeOf(i);
+            int len = 0;
+            synchronized (s) {
+                int cur = head[i];
+                while (cur != -1) {
+                    len++;
+                    cur = s.next[cur >>> SEG_SHIFT][cur & SEG_MASK];
+                }
+            }
+            if (len > a) { c = b; b = a; a = len; }
+            else if (len > b) { c = b; b = len; }
+            else if (len > c) { c = len; }
+        }
+        return new int[]{a, b, c};
+    }
+}
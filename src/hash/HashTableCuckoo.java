@@ -0,0 +1,328 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Cuckoo hashing com duas funções hash e buckets de 1 ou 4 posições.
+ * h1 é a HashStrategy escolhida; h2 é HashFunctions.fmix32 com uma semente
+ * que muda a cada rehash. Cada chave só pode estar no bucket h1, no bucket h2
+ * ou no stash (até STASH_SIZE chaves), então a busca lê no máximo
+ * 2 * ways + STASH_SIZE posições, sem laço de sondagem.
+ *
+ * Inserção sem posição livre expulsa uma chave do bucket ("kick") e a recoloca
+ * no bucket alternativo dela; depois de MAX_KICKS expulsões a chave que sobrou
+ * vai para o stash e, se o stash estiver cheio, a tabela é refeita com outra
+ * semente (e o dobro do tamanho se a carga passou de maxLoad).
+ *
+ * Diferente das outras tabelas, é um conjunto: inserir uma chave já presente
+ * não faz nada (cópias repetidas só caberiam em 2 buckets + stash e forçariam
+ * rehash sem fim). A chave -1 coincide com EMPTY: fica fora do vetor, só
+ * marcada em emptyKeyPresent (e contada em size).
+ *
+ * As posições ocupadas de table[] ficam num OccupancyBitset (para gapStats):
+ * só putIn e remove mudam a ocupação; a expulsão troca chaves em posições
+ * que continuam ocupadas.
+ *
+ * save/load gravam table[], stash e a semente de h2 num SnapshotFile (sem a
+ * semente as chaves não seriam achadas no bucket h2); o load não reinsere.
+ */
+public class HashTableCuckoo {
+    private static final int EMPTY = -1;
+    private static final int MAX_KICKS = 500;
+    private static final int STASH_SIZE = 8;
+
+    private final HashStrategy h;
+    private final int ways; // posições por bucket (1 ou 4)
+    private final double maxLoad;
+    private int buckets;
+    private int[] table; // buckets * ways, -1 = vazio
+    private OccupancyBitset occupied; // table[pos] != EMPTY
+    private final int[] stash = new int[STASH_SIZE];
+    private int stashCount = 0;
+    private int seed = 0x5BD1E995;
+    private int rnd = 0x2545F491; // xorshift para escolher a vítima
+    private int size = 0;
+    private int threshold;
+    private boolean emptyKeyPresent = false; // a chave -1 (= EMPTY) não vai para table[]
+
+    // Métricas
+    private long collisions = 0;
+    private long kicks = 0;
+    private int rehashes = 0;
+
+    public HashTableCuckoo(int m, HashStrategy hash, int ways) {
+        if (ways != 1 && ways != 4) throw new IllegalArgumentException("ways deve ser 1 ou 4");
+        this.h = hash;
+        this.ways = ways;
+        // com duas escolhas, 1 posição por bucket satura perto de 50%; 4 posições, perto de 97%
+        this.maxLoad = ways == 1 ? 0.45 : 0.90;
+        allocate(Math.max(1, (m + ways - 1) / ways));
+    }
+
+    // Reconstrói a partir de um snapshot (ver save); m do cabeçalho = buckets
+    private HashTableCuckoo(SnapshotFile.Reader r) throws IOException {
+        this.h = r.hash;
+        this.ways = r.scalarInt();
+        this.maxLoad = r.scalarDouble();
+        this.seed = r.scalarInt();
+        this.rnd = r.scalarInt();
+        this.size = r.scalarInt();
+        this.rehashes = r.scalarInt();
+        this.emptyKeyPresent = r.scalarInt() != 0;
+        this.buckets = r.m;
+        this.threshold = (int) (maxLoad * buckets * ways);
+        this.table = r.ints();
+        this.occupied = OccupancyBitset.of(table.length, i -> table[i] != EMPTY); // o snapshot não grava o bitset
+        int[] s = r.ints();
+        System.arraycopy(s, 0, stash, 0, s.length);
+        this.stashCount = s.length;
+    }
+
+    public static HashTableCuckoo load(Path file) throws IOException {
+        return new HashTableCuckoo(SnapshotFile.Reader.open(file, SnapshotFile.CUCKOO));
+    }
+
+    public void save(Path file) throws IOException {
+        new SnapshotFile.Writer(SnapshotFile.CUCKOO, buckets, h)
+                .scalar(ways).scalar(maxLoad).scalar(seed).scalar(rnd).scalar(size).scalar(rehashes)
+                .scalar(emptyKeyPresent ? 1 : 0)
+                .ints(table, buckets * ways)
+                .ints(stash, stashCount)
+                .write(file);
+    }
+
+    private void allocate(int nb) {
+        buckets = nb;
+        table = new int[nb * ways];
+        Arrays.fill(table, EMPTY);
+        occupied = new OccupancyBitset(nb * ways);
+        stashCount = 0;
+        threshold = (int) (maxLoad * nb * ways);
+    }
+
+    public void clearMetrics() { collisions = 0; kicks = 0; }
+    public long getCollisions() { return collisions; }
+    public long getKicks() { return kicks; }
+    public int getRehashes() { return rehashes; }
+    public int getStashSize() { return stashCount; }
+    public int size() { return size; }
+    public int capacity() { return buckets * ways; }
+    // Bytes retidos pelos vetores (ver Footprint); os campos escalares da tabela não entram
+    public long footprint() { return Footprint.of(table) + Footprint.of(stash) + occupied.footprint(); }
+
+    private int bucket1(int key) {
+        return h.index(key, buckets);
+    }
+
+    private int bucket2(int key) {
+        return HashFunctions.fmix32(key ^ seed, buckets);
+    }
+
+    public void insert(int key) {
+        if (key == EMPTY) {
+            if (!emptyKeyPresent) {
+                emptyKeyPresent = true;
+                size++;
+            }
+            return;
+        }
+        if (contains(key)) return;
+        if (size >= threshold) rehash(buckets * 2, EMPTY);
+        int homeless = place(key);
+        if (homeless != EMPTY) {
+            if (stashCount < STASH_SIZE) stash[stashCount++] = homeless;
+            else rehash(size + 1 > threshold ? buckets * 2 : buckets, homeless);
+        }
+        size++;
+    }
+
+    // insert que devolve os buckets tentados para a própria chave mais as expulsões
+    // que ela causou (sem o rehash, que recoloca as outras); 0 se já estava presente.
+    // Para os percentis de --opstats
+    public int insertProbeCount(int key) {
+        if (key == EMPTY || contains(key)) {
+            insert(key);
+            return 0;
+        }
+        if (size >= threshold) rehash(buckets * 2, EMPTY);
+        long c0 = collisions, k0 = kicks; // place: 1 colisão se o bucket h1 está cheio, 1 por expulsão
+        int homeless = place(key);
+        int probes = (int) (1 + collisions - c0 + kicks - k0);
+        if (homeless != EMPTY) {
+            if (stashCount < STASH_SIZE) stash[stashCount++] = homeless;
+            else rehash(size + 1 > threshold ? buckets * 2 : buckets, homeless);
+        }
+        size++;
+        return probes;
+    }
+
+    // Coloca a chave; devolve EMPTY se conseguiu, ou a chave que ficou sem lugar
+    private int place(int key) {
+        int b = bucket1(key);
+        if (putIn(b, key)) return EMPTY;
+        collisions++;
+        int b2 = bucket2(key);
+        if (putIn(b2, key)) return EMPTY;
+        int cur = (nextRandom() & 1) == 0 ? b : b2;
+        for (int k = 0; k < MAX_KICKS; k++) {
+            int slot = cur * ways + (nextRandom() & (ways - 1));
+            int victim = table[slot];
+            table[slot] = key;
+            key = victim;
+            kicks++;
+            int v1 = bucket1(key);
+            int alt = v1 == cur ? bucket2(key) : v1;
+            if (putIn(alt, key)) return EMPTY;
+            cur = alt;
+        }
+        return key;
+    }
+
+    private boolean putIn(int b, int key) {
+        int base = b * ways;
+        for (int i = 0; i < ways; i++) {
+            if (table[base + i] == EMPTY) {
+                table[base + i] = key;
+                occupied.set(base + i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Refaz a tabela com nova semente; extra é uma chave ainda fora da tabela (ou EMPTY)
+    private void rehash(int newBuckets, int extra) {
+        int[] all = new int[size + 1];
+        int c = 0;
+        for (int k : table) if (k != EMPTY) all[c++] = k;
+        for (int i = 0; i < stashCount; i++) all[c++] = stash[i];
+        if (extra != EMPTY) all[c++] = extra;
+
+        int nb = newBuckets;
+        int attempt = 0;
+        while (true) {
+            rehashes++;
+            seed = HashFunctions.fmix32(seed + 0x9E3779B9);
+            allocate(nb);
+            boolean ok = true;
+            for (int i = 0; i < c && ok; i++) {
+                int homeless = place(all[i]);
+                if (homeless != EMPTY) {
+                    if (stashCount < STASH_SIZE) stash[stashCount++] = homeless;
+                    else ok = false;
+                }
+            }
+            if (ok) return;
+            // várias sementes falharam: a carga está alta demais para estas funções
+            if (++attempt % 4 == 0) nb *= 2;
+        }
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) return emptyKeyPresent;
+        int base = bucket1(key) * ways;
+        for (int i = 0; i < ways; i++) if (table[base + i] == key) return true;
+        base = bucket2(key) * ways;
+        for (int i = 0; i < ways; i++) if (table[base + i] == key) return true;
+        for (int i = 0; i < stashCount; i++) if (stash[i] == key) return true;
+        return false;
+    }
+
+    // Posições comparadas por contains(key) (dois buckets e o stash, no pior caso)
+    public int probeCount(int key) {
+        if (key == EMPTY) return 0;
+        int probes = 0;
+        int base = bucket1(key) * ways;
+        for (int i = 0; i < ways; i++) {
+            probes++;
+            if (table[base + i] == key) return probes;
+        }
+        base = bucket2(key) * ways;
+        for (int i = 0; i < ways; i++) {
+            probes++;
+            if (table[base + i] == key) return probes;
+        }
+        for (int i = 0; i < stashCount; i++) {
+            probes++;
+            if (stash[i] == key) return probes;
+        }
+        return probes;
+    }
+
+    // contains para um lote: calcula os dois buckets de um grupo de chaves e só
+    // depois lê a tabela, para que as faltas de cache das chaves se sobreponham
+    public void containsBatch(int[] keys, boolean[] out) {
+        int[] b1 = new int[BatchLookup.GROUP], b2 = new int[BatchLookup.GROUP];
+        for (int from = 0; from < keys.length; from += BatchLookup.GROUP) {
+            int g = Math.min(BatchLookup.GROUP, keys.length - from);
+            for (int j = 0; j < g; j++) {
+                int key = keys[from + j];
+                b1[j] = bucket1(key) * ways;
+                b2[j] = bucket2(key) * ways;
+            }
+            for (int j = 0; j < g; j++) {
+                int key = keys[from + j];
+                if (key == EMPTY) { out[from + j] = emptyKeyPresent; continue; }
+                boolean found = false;
+                for (int i = 0; i < ways && !found; i++) found = table[b1[j] + i] == key || table[b2[j] + i] == key;
+                for (int i = 0; i < stashCount && !found; i++) found = stash[i] == key;
+                out[from + j] = found;
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            if (!emptyKeyPresent) return false;
+            emptyKeyPresent = false;
+            size--;
+            return true;
+        }
+        int base = bucket1(key) * ways;
+        for (int i = 0; i < ways; i++) {
+            if (table[base + i] == key) { table[base + i] = EMPTY; occupied.clear(base + i); size--; return true; }
+        }
+        base = bucket2(key) * ways;
+        for (int i = 0; i < ways; i++) {
+            if (table[base + i] == key) { table[base + i] = EMPTY; occupied.clear(base + i); size--; return true; }
+        }
+        for (int i = 0; i < stashCount; i++) {
+            if (stash[i] == key) { stash[i] = stash[--stashCount]; size--; return true; }
+        }
+        return false;
+    }
+
+    private int nextRandom() {
+        int x = rnd;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        rnd = x;
+        return x;
+    }
+
+    // Um código por linha via Registro.formatInto, sem alocar por chave (inclui o stash);
+    // a chave -1 não é código válido e fica de fora
+    public long exportCodes(OutputStream out) throws IOException {
+        CodeExporter ex = new CodeExporter(out);
+        for (int k : table) {
+            if (k != EMPTY) ex.write(k);
+        }
+        for (int i = 0; i < stashCount; i++) ex.write(stash[i]);
+        return ex.finish();
+    }
+
+    // Gaps pelo bitset mantido (ver HashTableLinearProbing.gapStats)
+    public GapStats gapStats() {
+        OccupancyBitset.Gaps g = occupied.gaps(true);
+        return new GapStats(g.min(), g.avg(), g.max());
+    }
+
+    public static class GapStats {
+        public final int min; public final double avg; public final int max;
+        public GapStats(int min, double avg, int max) { this.min = min; this.avg = avg; this.max = max; }
+    }
+}
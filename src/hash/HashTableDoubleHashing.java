@@ -0,0 +1,403 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Endereçamento aberto com hash duplo: h(k, i) = (h1(k) + i * h2(k)) mod m
+ * Se m for potência de 2 usa máscara e um h2 sempre ímpar.
+ *
+ * Crescimento e rehash incremental iguais aos de HashTableLinearProbing:
+ * maxLoadFactor > 0 liga o crescimento, rehashSlice > 0 migra aos poucos.
+ * Remoção por lápide, com limpeza automática como em HashTableLinearProbing
+ * (deslocamento para trás não se aplica: a sequência de sondagem depende da chave).
+ * Estado codificado no próprio table[] (EMPTY/TOMBSTONE), também como lá.
+ * save/load pelo SnapshotFile, como em HashTableLinearProbing.
+ * bulkInsert calcula as hashes em paralelo mas coloca as chaves em sequência:
+ * a sondagem de uma chave pode cair em qualquer parte do vetor, então não dá para
+ * dividir a colocação por faixa como em HashTableLinearProbing.
+ * OccupancyBitset das posições vivas mantido a cada escrita, também como lá.
+ */
+public class HashTableDoubleHashing {
+    private int m;
+    private int mask; // m - 1 se m é potência de 2, senão -1
+    private int[] table; // EMPTY, TOMBSTONE ou chave
+    private OccupancyBitset occupied; // posições vivas de table[]
+    private final HashStrategy h1; // h2 é sempre HashFunctions.doubleHashSecondary
+
+    static final int EMPTY = -1;
+    static final int TOMBSTONE = Integer.MIN_VALUE;
+    // cópias das chaves iguais aos sentinelas, guardadas fora do vetor
+    private int emptyKeyCount = 0;
+    private int tombKeyCount = 0;
+
+    // Remoção
+    private static final double TOMBSTONE_LIMIT = 0.25; // fração de m
+    private int tombstones = 0;
+    private int cleanups = 0;
+
+    // Crescimento
+    private final double maxLoadFactor; // <= 0: tamanho fixo
+    private final int rehashSlice;      // <= 0: rehash de uma vez só
+    private int size = 0;
+    private int threshold;
+    private int resizes = 0;
+
+    // Rehash incremental em andamento (oldTable != null)
+    private int oldM, oldMask;
+    private int[] oldTable;
+    private int migrateIdx;
+
+    // Métricas
+    private long collisions = 0;
+
+    public HashTableDoubleHashing(int m, HashStrategy h1) {
+        this(m, h1, 0, 0);
+    }
+
+    public HashTableDoubleHashing(int m, HashStrategy h1, double maxLoadFactor, int rehashSlice) {
+        if (maxLoadFactor > 1) throw new IllegalArgumentException("maxLoadFactor deve ser <= 1");
+        this.h1 = h1;
+        this.maxLoadFactor = maxLoadFactor;
+        this.rehashSlice = rehashSlice;
+        allocate(m);
+    }
+
+    // Reconstrói a partir de um snapshot (ver save)
+    private HashTableDoubleHashing(SnapshotFile.Reader r) throws IOException {
+        this.h1 = r.hash;
+        this.maxLoadFactor = r.scalarDouble();
+        this.rehashSlice = r.scalarInt();
+        this.size = r.scalarInt();
+        this.emptyKeyCount = r.scalarInt();
+        this.tombKeyCount = r.scalarInt();
+        this.tombstones = r.scalarInt();
+        this.resizes = r.scalarInt();
+        this.cleanups = r.scalarInt();
+        this.m = r.m;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.table = r.ints();
+        this.occupied = OccupancyBitset.of(m, i -> isLive(table[i])); // o snapshot não grava o bitset
+        this.threshold = maxLoadFactor > 0 ? (int) (maxLoadFactor * m) : Integer.MAX_VALUE;
+    }
+
+    public static HashTableDoubleHashing load(Path file) throws IOException {
+        return new HashTableDoubleHashing(SnapshotFile.Reader.open(file, SnapshotFile.DOUBLE));
+    }
+
+    public void save(Path file) throws IOException {
+        if (oldTable != null) finishMigration();
+        new SnapshotFile.Writer(SnapshotFile.DOUBLE, m, h1)
+                .scalar(maxLoadFactor).scalar(rehashSlice)
+                .scalar(size).scalar(emptyKeyCount).scalar(tombKeyCount).scalar(tombstones)
+                .scalar(resizes).scalar(cleanups)
+                .ints(table, m)
+                .write(file);
+    }
+
+    private void allocate(int newM) {
+        this.m = newM;
+        this.mask = (newM & (newM - 1)) == 0 ? newM - 1 : -1;
+        this.table = new int[newM];
+        Arrays.fill(table, EMPTY);
+        this.occupied = new OccupancyBitset(newM);
+        this.tombstones = 0;
+        this.threshold = maxLoadFactor > 0 ? (int) (maxLoadFactor * newM) : Integer.MAX_VALUE;
+    }
+
+    public void clearMetrics() { collisions = 0; }
+    public long getCollisions() { return collisions; }
+    public int size() { return size; }
+    public int capacity() { return m; }
+    // Bytes retidos pelos vetores (ver Footprint); os campos escalares da tabela não entram
+    public long footprint() { return Footprint.of(table) + Footprint.of(oldTable) + occupied.footprint(); }
+    public int getResizes() { return resizes; }
+    public int getTombstones() { return tombstones; }
+    public int getCleanups() { return cleanups; }
+
+    public void insert(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            if (key == EMPTY) emptyKeyCount++; else tombKeyCount++;
+            size++;
+            return;
+        }
+        if (oldTable != null) migrateStep();
+        if (size >= threshold) grow();
+        put(key);
+        size++;
+    }
+
+    // insert que devolve as posições tentadas para a própria chave
+    // (ver HashTableLinearProbing.insertProbeCount)
+    public int insertProbeCount(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            insert(key);
+            return 0; // não passa pela hash
+        }
+        if (oldTable != null) migrateStep();
+        if (size >= threshold) grow();
+        int probes = put(key);
+        size++;
+        return probes;
+    }
+
+    // Mesmo conjunto de chaves que chamar insert para cada uma. Espalhamento por faixa
+    // de posição de origem (BulkPartition) e passos h2 em paralelo; a colocação é
+    // sequencial, faixa por faixa, então cada escrita cai perto da anterior na 1ª sondagem.
+    // Colisões: as desta ordem, já no m final (ver HashTableLinearProbing.bulkInsert)
+    public void bulkInsert(int[] data) {
+        int n = data.length;
+        if (n == 0) return;
+        if (oldTable != null) finishMigration();
+        // cresce antes, até o m em que a montagem sequencial terminaria
+        while (size + n - 1 >= threshold) {
+            grow();
+            if (oldTable != null) finishMigration();
+        }
+
+        // chaves iguais aos sentinelas não passam pela hash: só são contadas
+        int sentinels = 0;
+        for (int x : data) if (x == EMPTY || x == TOMBSTONE) sentinels++;
+        int[] keys = data;
+        if (sentinels > 0) {
+            keys = new int[n - sentinels];
+            int c = 0;
+            for (int x : data) {
+                if (x == EMPTY) emptyKeyCount++;
+                else if (x == TOMBSTONE) tombKeyCount++;
+                else keys[c++] = x;
+            }
+        }
+
+        BulkPartition p = BulkPartition.of(keys, m, h1, BulkPartition.regionsFor(m));
+        int[] steps = new int[p.keys.length];
+        int tm = m, tmask = mask;
+        IntStream.range(0, p.regions).parallel().forEach(r -> {
+            for (int i = p.start[r]; i < p.start[r + 1]; i++) {
+                int key = p.keys[i];
+                steps[i] = tmask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, tmask) : HashFunctions.doubleHashSecondary(key, tm);
+            }
+        });
+        for (int i = 0; i < p.keys.length; i++) put(p.keys[i], p.buckets[i], steps[i]);
+        size += n;
+    }
+
+    private static boolean isLive(int slot) {
+        return slot != EMPTY && slot != TOMBSTONE;
+    }
+
+    // Devolve as posições tentadas (colisões desta chave + 1)
+    private int put(int key) {
+        int base = h1.index(key, m);
+        int step = mask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, mask) : HashFunctions.doubleHashSecondary(key, m);
+        return put(key, base, step);
+    }
+
+    private int put(int key, int base, int step) {
+        int pos = base;
+        int i = 0;
+        while (isLive(table[pos])) {
+            collisions++;
+            i++;
+            pos = mask >= 0 ? (base + i * step) & mask : (base + i * step) % m;
+        }
+        if (table[pos] == TOMBSTONE) tombstones--; // reaproveitou uma lápide
+        table[pos] = key;
+        occupied.set(pos);
+        return i + 1;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            if (key == EMPTY ? emptyKeyCount == 0 : tombKeyCount == 0) return false;
+            if (key == EMPTY) emptyKeyCount--; else tombKeyCount--;
+            size--;
+            return true;
+        }
+        if (oldTable != null) finishMigration();
+        int base = h1.index(key, m);
+        int step = mask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, mask) : HashFunctions.doubleHashSecondary(key, m);
+        int pos = base;
+        int i = 0;
+        while (table[pos] != EMPTY) {
+            if (table[pos] == key) {
+                table[pos] = TOMBSTONE;
+                occupied.clear(pos);
+                tombstones++;
+                size--;
+                if (tombstones > TOMBSTONE_LIMIT * m) purgeTombstones();
+                return true;
+            }
+            i++;
+            pos = mask >= 0 ? (base + i * step) & mask : (base + i * step) % m;
+            if (i > m) break; // segurança
+        }
+        return false;
+    }
+
+    // Reconstrói a tabela no mesmo vetor, descartando as lápides, sem copiar as chaves
+    // (ver HashTableLinearProbing.purgeTombstones; aqui a sondagem usa o passo h2)
+    private void purgeTombstones() {
+        for (int i = 0; i < m; i++) {
+            if (table[i] == TOMBSTONE) table[i] = EMPTY;
+        }
+        occupied.clearAll();
+        tombstones = 0;
+        for (int i = 0; i < m; i++) {
+            while (table[i] != EMPTY && !occupied.get(i)) {
+                int key = table[i];
+                int base = h1.index(key, m);
+                int step = mask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, mask) : HashFunctions.doubleHashSecondary(key, m);
+                int pos = base;
+                int k = 0;
+                while (occupied.get(pos)) {
+                    collisions++;
+                    k++;
+                    pos = mask >= 0 ? (base + k * step) & mask : (base + k * step) % m;
+                }
+                occupied.set(pos);
+                if (pos == i) break;
+                table[i] = table[pos]; // EMPTY, ou uma chave ainda não fixada
+                table[pos] = key;
+            }
+        }
+        cleanups++;
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) return emptyKeyCount > 0;
+        if (key == TOMBSTONE) return tombKeyCount > 0;
+        if (oldTable != null) {
+            migrateStep();
+            if (oldTable != null && containsIn(oldTable, oldM, oldMask, key)) return true;
+        }
+        return containsIn(table, m, mask, key);
+    }
+
+    // contains para um lote, com as sondagens de BatchLookup.GROUP chaves intercaladas
+    // (ver HashTableLinearProbing.containsBatch)
+    public void containsBatch(int[] keys, boolean[] out) {
+        if (oldTable != null) finishMigration();
+        int[] base = new int[BatchLookup.GROUP], step = new int[BatchLookup.GROUP];
+        int[] probe = new int[BatchLookup.GROUP], idx = new int[BatchLookup.GROUP];
+        for (int from = 0; from < keys.length; from += BatchLookup.GROUP) {
+            int end = Math.min(keys.length, from + BatchLookup.GROUP);
+            int active = 0;
+            for (int i = from; i < end; i++) {
+                int key = keys[i];
+                if (key == EMPTY) { out[i] = emptyKeyCount > 0; continue; }
+                if (key == TOMBSTONE) { out[i] = tombKeyCount > 0; continue; }
+                base[active] = h1.index(key, m);
+                step[active] = mask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, mask) : HashFunctions.doubleHashSecondary(key, m);
+                probe[active] = 0;
+                idx[active++] = i;
+            }
+            while (active > 0) {
+                int w = 0;
+                for (int j = 0; j < active; j++) {
+                    int i = idx[j], k = probe[j];
+                    int pos = mask >= 0 ? (base[j] + k * step[j]) & mask : (base[j] + k * step[j]) % m;
+                    int slot = table[pos];
+                    if (slot == keys[i]) { out[i] = true; continue; }
+                    if (slot == EMPTY || k + 1 > m) { out[i] = false; continue; }
+                    base[w] = base[j]; step[w] = step[j]; probe[w] = k + 1; idx[w++] = i;
+                }
+                active = w;
+            }
+        }
+    }
+
+    private boolean containsIn(int[] t, int tm, int tmask, int key) {
+        int base = h1.index(key, tm);
+        int step = tmask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, tmask) : HashFunctions.doubleHashSecondary(key, tm);
+        int pos = base;
+        int i = 0;
+        while (t[pos] != EMPTY) {
+            if (t[pos] == key) return true;
+            i++;
+            pos = tmask >= 0 ? (base + i * step) & tmask : (base + i * step) % tm;
+            if (i > tm) break; // segurança
+        }
+        return false;
+    }
+
+    // Posições lidas por contains(key) (até achar, achar EMPTY ou dar a volta), sem
+    // migrar nada; para as métricas de distribuição de sondagem (fora do caminho medido)
+    public int probeCount(int key) {
+        if (key == EMPTY || key == TOMBSTONE) return 0;
+        int probes = 0;
+        if (oldTable != null) {
+            probes = probesIn(oldTable, oldM, oldMask, key);
+            if (probes < 0) return -probes;
+        }
+        int p = probesIn(table, m, mask, key);
+        return probes + Math.abs(p);
+    }
+
+    // Leituras até o fim da busca; negativo se achou a chave
+    private int probesIn(int[] t, int tm, int tmask, int key) {
+        int base = h1.index(key, tm);
+        int step = tmask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, tmask) : HashFunctions.doubleHashSecondary(key, tm);
+        int pos = base;
+        int i = 0;
+        while (t[pos] != EMPTY) {
+            if (t[pos] == key) return -(i + 1);
+            i++;
+            pos = tmask >= 0 ? (base + i * step) & tmask : (base + i * step) % tm;
+            if (i > tm) break; // segurança
+        }
+        return i + 1;
+    }
+
+    private void grow() {
+        if (oldTable != null) finishMigration();
+        oldTable = table;
+        oldM = m;
+        oldMask = mask;
+        migrateIdx = 0;
+        allocate(mask >= 0 ? m << 1 : HashFunctions.nextPrime(2 * m));
+        resizes++;
+        if (rehashSlice <= 0) finishMigration();
+    }
+
+    private void migrateStep() {
+        int end = Math.min(oldM, migrateIdx + rehashSlice);
+        for (int i = migrateIdx; i < end; i++) {
+            if (isLive(oldTable[i])) put(oldTable[i]);
+        }
+        migrateIdx = end;
+        if (migrateIdx == oldM) oldTable = null;
+    }
+
+    private void finishMigration() {
+        for (int i = migrateIdx; i < oldM; i++) {
+            if (isLive(oldTable[i])) put(oldTable[i]);
+        }
+        oldTable = null;
+    }
+
+    // Um código por linha via Registro.formatInto (ver HashTableLinearProbing.exportCodes)
+    public long exportCodes(OutputStream out) throws IOException {
+        if (oldTable != null) finishMigration();
+        CodeExporter ex = new CodeExporter(out);
+        for (int i = 0; i < m; i++) {
+            if (isLive(table[i])) ex.write(table[i]);
+        }
+        return ex.finish();
+    }
+
+    // Gaps pelo bitset mantido (ver HashTableLinearProbing.gapStats)
+    public GapStats gapStats() {
+        if (oldTable != null) finishMigration();
+        OccupancyBitset.Gaps g = occupied.gaps(true);
+        return new GapStats(g.min(), g.avg(), g.max());
+    }
+
+    public static class GapStats {
+        public final int min; public final double avg; public final int max;
+        public GapStats(int min, double avg, int max) { this.min = min; this.avg = avg; this.max = max; }
+    }
+}
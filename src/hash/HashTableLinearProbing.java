@@ -0,0 +1,497 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Endereçamento aberto com sondagem linear.
+ * Se m for potência de 2 o avanço usa máscara em vez de % m (divisão inteira).
+ *
+ * Com maxLoadFactor > 0 a tabela cresce (2m, ou o próximo primo >= 2m) quando
+ * size atinge maxLoadFactor * m. Com rehashSlice > 0 o rehash é incremental:
+ * a tabela antiga fica de pé e cada operação migra rehashSlice posições dela,
+ * então nenhuma inserção paga a cópia inteira de uma vez.
+ *
+ * Todo o estado cabe em table[]: EMPTY (-1) nunca foi usada e encerra a busca,
+ * TOMBSTONE marca uma remoção. As chaves que coincidem com esses valores ficam
+ * fora do vetor, só contadas (emptyKeyCount/tombKeyCount), então a sondagem
+ * lê um único vetor.
+ *
+ * Remoção: por padrão deixa uma lápide, que a busca atravessa e a inserção
+ * reaproveita. Com backwardShift a remoção puxa para trás
+ * as chaves seguintes do cluster e não deixa lápide nenhuma. Quando as lápides
+ * passam de TOMBSTONE_LIMIT * m a tabela é reconstruída no próprio vetor.
+ *
+ * bulkInsert monta o lote em paralelo: as chaves são espalhadas por faixa de
+ * posições (BulkPartition) e cada faixa sonda só dentro dela; quem passaria do
+ * fim da faixa fica para uma passada sequencial no final.
+ *
+ * As posições vivas de table[] ficam também num OccupancyBitset, atualizado a
+ * cada escrita (put, remoção, limpeza): gapStats não relê as m posições.
+ *
+ * save/load gravam table[] e os contadores num SnapshotFile; o load copia o
+ * vetor em bloco do arquivo mapeado, sem reinserir.
+ */
+public class HashTableLinearProbing {
+    private int m;
+    private int mask; // m - 1 se m é potência de 2, senão -1
+    private int[] table; // EMPTY, TOMBSTONE ou chave
+    private OccupancyBitset occupied; // posições vivas de table[]
+    private final HashStrategy h;
+
+    static final int EMPTY = -1;
+    static final int TOMBSTONE = Integer.MIN_VALUE;
+    // cópias das chaves iguais aos sentinelas, guardadas fora do vetor
+    private int emptyKeyCount = 0;
+    private int tombKeyCount = 0;
+
+    // Remoção
+    private static final double TOMBSTONE_LIMIT = 0.25; // fração de m
+    private final boolean backwardShift;
+    private int tombstones = 0;
+    private int cleanups = 0;
+
+    // Crescimento
+    private final double maxLoadFactor; // <= 0: tamanho fixo
+    private final int rehashSlice;      // <= 0: rehash de uma vez só
+    private int size = 0;
+    private int threshold;
+    private int resizes = 0;
+
+    // Rehash incremental em andamento (oldTable != null)
+    private int oldM, oldMask;
+    private int[] oldTable;
+    private int migrateIdx;
+
+    // Métricas
+    private long collisions = 0;
+
+    public HashTableLinearProbing(int m, HashStrategy hash) {
+        this(m, hash, 0, 0);
+    }
+
+    public HashTableLinearProbing(int m, HashStrategy hash, double maxLoadFactor, int rehashSlice) {
+        this(m, hash, maxLoadFactor, rehashSlice, false);
+    }
+
+    public HashTableLinearProbing(int m, HashStrategy hash, double maxLoadFactor, int rehashSlice,
+                                  boolean backwardShift) {
+        if (maxLoadFactor > 1) throw new IllegalArgumentException("maxLoadFactor deve ser <= 1");
+        this.h = hash;
+        this.maxLoadFactor = maxLoadFactor;
+        this.rehashSlice = rehashSlice;
+        this.backwardShift = backwardShift;
+        allocate(m);
+    }
+
+    // Reconstrói a partir de um snapshot (ver save)
+    private HashTableLinearProbing(SnapshotFile.Reader r) throws IOException {
+        this.h = r.hash;
+        this.maxLoadFactor = r.scalarDouble();
+        this.rehashSlice = r.scalarInt();
+        this.backwardShift = r.scalar() != 0;
+        this.size = r.scalarInt();
+        this.emptyKeyCount = r.scalarInt();
+        this.tombKeyCount = r.scalarInt();
+        this.tombstones = r.scalarInt();
+        this.resizes = r.scalarInt();
+        this.cleanups = r.scalarInt();
+        this.m = r.m;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.table = r.ints();
+        this.occupied = OccupancyBitset.of(m, i -> isLive(table[i])); // o snapshot não grava o bitset
+        this.threshold = maxLoadFactor > 0 ? (int) (maxLoadFactor * m) : Integer.MAX_VALUE;
+    }
+
+    public static HashTableLinearProbing load(Path file) throws IOException {
+        return new HashTableLinearProbing(SnapshotFile.Reader.open(file, SnapshotFile.LINEAR));
+    }
+
+    public void save(Path file) throws IOException {
+        if (oldTable != null) finishMigration();
+        new SnapshotFile.Writer(SnapshotFile.LINEAR, m, h)
+                .scalar(maxLoadFactor).scalar(rehashSlice).scalar(backwardShift ? 1 : 0)
+                .scalar(size).scalar(emptyKeyCount).scalar(tombKeyCount).scalar(tombstones)
+                .scalar(resizes).scalar(cleanups)
+                .ints(table, m)
+                .write(file);
+    }
+
+    private void allocate(int newM) {
+        this.m = newM;
+        this.mask = (newM & (newM - 1)) == 0 ? newM - 1 : -1;
+        this.table = new int[newM];
+        Arrays.fill(table, EMPTY);
+        this.occupied = new OccupancyBitset(newM);
+        this.tombstones = 0;
+        this.threshold = maxLoadFactor > 0 ? (int) (maxLoadFactor * newM) : Integer.MAX_VALUE;
+    }
+
+    public void clearMetrics() { collisions = 0; }
+    public long getCollisions() { return collisions; }
+    public int size() { return size; }
+    public int capacity() { return m; }
+    // Bytes retidos pelos vetores (ver Footprint); os campos escalares da tabela não entram
+    public long footprint() { return Footprint.of(table) + Footprint.of(oldTable) + occupied.footprint(); }
+    public int getResizes() { return resizes; }
+    public int getTombstones() { return tombstones; }
+    public int getCleanups() { return cleanups; }
+
+    public void insert(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            if (key == EMPTY) emptyKeyCount++; else tombKeyCount++;
+            size++;
+            return;
+        }
+        if (oldTable != null) migrateStep();
+        if (size >= threshold) grow();
+        put(key);
+        size++;
+    }
+
+    // insert que devolve as posições tentadas para a própria chave (sem as chaves que
+    // migrateStep/grow recolocam); para os percentis de --opstats, fora do caminho medido
+    public int insertProbeCount(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            insert(key);
+            return 0; // não passa pela hash
+        }
+        if (oldTable != null) migrateStep();
+        if (size >= threshold) grow();
+        int probes = put(key);
+        size++;
+        return probes;
+    }
+
+    // Mesmo conjunto de chaves que chamar insert para cada uma; a posição de cada
+    // chave pode mudar, mas a tabela continua sendo uma sondagem linear válida.
+    // As colisões são as desta montagem (ordem por faixa, transbordos no fim, já no
+    // m final): próximas das de insert com m fixo, menores quando a tabela cresce
+    public void bulkInsert(int[] data) {
+        int n = data.length;
+        if (n == 0) return;
+        if (oldTable != null) finishMigration();
+        // cresce antes, até o m em que a montagem sequencial terminaria
+        while (size + n - 1 >= threshold) {
+            grow();
+            if (oldTable != null) finishMigration();
+        }
+
+        // chaves iguais aos sentinelas não passam pela hash: só são contadas
+        int sentinels = 0;
+        for (int x : data) if (x == EMPTY || x == TOMBSTONE) sentinels++;
+        int[] keys = data;
+        if (sentinels > 0) {
+            keys = new int[n - sentinels];
+            int c = 0;
+            for (int x : data) {
+                if (x == EMPTY) emptyKeyCount++;
+                else if (x == TOMBSTONE) tombKeyCount++;
+                else keys[c++] = x;
+            }
+        }
+
+        BulkPartition p = BulkPartition.of(keys, m, h, BulkPartition.regionsFor(m));
+        long[] regionCollisions = new long[p.regions];
+        int[] regionTombs = new int[p.regions];     // lápides reaproveitadas
+        int[][] spill = new int[p.regions][];        // chaves que passariam do fim da faixa
+        int[] spillCount = new int[p.regions];
+        IntStream.range(0, p.regions).parallel().forEach(r -> {
+            int end = r + 1 == p.regions ? m : (int) ((long) (r + 1) * m / p.regions);
+            long coll = 0;
+            int tombs = 0, spilled = 0;
+            int[] out = null;
+            for (int i = p.start[r]; i < p.start[r + 1]; i++) {
+                int key = p.keys[i];
+                int pos = p.buckets[i];
+                while (pos < end && isLive(table[pos])) {
+                    coll++;
+                    pos++;
+                }
+                if (pos == end) {
+                    if (out == null) out = new int[16];
+                    else if (spilled == out.length) out = Arrays.copyOf(out, spilled * 2);
+                    out[spilled++] = key;
+                    p.buckets[i] = -1;
+                    continue;
+                }
+                if (table[pos] == TOMBSTONE) tombs++;
+                table[pos] = key;
+                p.buckets[i] = pos; // posição final, para o bitset
+            }
+            regionCollisions[r] = coll;
+            regionTombs[r] = tombs;
+            spill[r] = out;
+            spillCount[r] = spilled;
+        });
+        for (int r = 0; r < p.regions; r++) {
+            collisions += regionCollisions[r];
+            tombstones -= regionTombs[r];
+        }
+        // o bitset é compartilhado entre as faixas (palavras na fronteira): atualizado depois, em O(n)
+        for (int i = 0; i < p.keys.length; i++) {
+            if (p.buckets[i] >= 0) occupied.set(p.buckets[i]);
+        }
+        // as que sobraram seguem a sondagem normal, atravessando a fronteira
+        for (int r = 0; r < p.regions; r++) {
+            for (int i = 0; i < spillCount[r]; i++) put(spill[r][i]);
+        }
+        size += n;
+    }
+
+    private static boolean isLive(int slot) {
+        return slot != EMPTY && slot != TOMBSTONE;
+    }
+
+    // Coloca a chave na tabela atual; usado também pela migração (colisões do rehash contam).
+    // Devolve as posições tentadas (colisões desta chave + 1)
+    private int put(int key) {
+        int pos = h.index(key, m);
+        int start = pos;
+        int probes = 1;
+        while (isLive(table[pos])) {
+            collisions++;
+            probes++;
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            if (pos == start) throw new IllegalStateException("Tabela cheia");
+        }
+        if (table[pos] == TOMBSTONE) tombstones--; // reaproveitou uma lápide
+        table[pos] = key;
+        occupied.set(pos);
+        return probes;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            if (key == EMPTY ? emptyKeyCount == 0 : tombKeyCount == 0) return false;
+            if (key == EMPTY) emptyKeyCount--; else tombKeyCount--;
+            size--;
+            return true;
+        }
+        if (oldTable != null) finishMigration();
+        int pos = h.index(key, m);
+        int start = pos;
+        while (table[pos] != EMPTY) {
+            if (table[pos] == key) {
+                size--;
+                if (backwardShift) {
+                    shiftBack(pos);
+                } else {
+                    table[pos] = TOMBSTONE;
+                    occupied.clear(pos);
+                    tombstones++;
+                    if (tombstones > TOMBSTONE_LIMIT * m) purgeTombstones();
+                }
+                return true;
+            }
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            if (pos == start) break;
+        }
+        return false;
+    }
+
+    // Remoção por deslocamento: a chave em j volta para o buraco i se a posição
+    // de origem dela não estiver no intervalo circular (i, j]
+    private void shiftBack(int i) {
+        int j = i;
+        while (true) {
+            j = mask >= 0 ? (j + 1) & mask : (j + 1) % m;
+            if (table[j] == EMPTY || j == i) break;
+            int k = table[j];
+            int home = h.index(k, m);
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!stays) {
+                table[i] = k;
+                i = j;
+            }
+        }
+        table[i] = EMPTY;
+        occupied.clear(i);
+    }
+
+    // Reconstrói a tabela no mesmo vetor, descartando as lápides, sem copiar as chaves:
+    // as lápides viram EMPTY e cada chave viva vai para a primeira posição ainda não
+    // fixada da sua sondagem (o bitset occupied marca as fixadas). Se ali há outra chave
+    // não fixada, as duas trocam de lugar e a deslocada é tratada em seguida. Posições
+    // fixadas nunca esvaziam, então a sondagem de cada chave termina válida.
+    private void purgeTombstones() {
+        for (int i = 0; i < m; i++) {
+            if (table[i] == TOMBSTONE) table[i] = EMPTY;
+        }
+        occupied.clearAll();
+        tombstones = 0;
+        for (int i = 0; i < m; i++) {
+            while (table[i] != EMPTY && !occupied.get(i)) {
+                int key = table[i];
+                int pos = h.index(key, m);
+                while (occupied.get(pos)) {
+                    collisions++;
+                    pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+                }
+                occupied.set(pos);
+                if (pos == i) break;
+                table[i] = table[pos]; // EMPTY, ou uma chave ainda não fixada (pos > i)
+                table[pos] = key;
+            }
+        }
+        cleanups++;
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) return emptyKeyCount > 0;
+        if (key == TOMBSTONE) return tombKeyCount > 0;
+        if (oldTable != null) {
+            migrateStep();
+            if (oldTable != null && containsIn(oldTable, oldM, oldMask, key)) return true;
+        }
+        return containsIn(table, m, mask, key);
+    }
+
+    // contains para um lote: calcula todas as posições de um grupo antes de ler a
+    // tabela e avança as sondagens pendentes uma posição por vez, intercalando as
+    // chaves; as leituras de chaves diferentes não dependem umas das outras e as
+    // faltas de cache se sobrepõem
+    public void containsBatch(int[] keys, boolean[] out) {
+        if (oldTable != null) finishMigration();
+        int[] pos = new int[BatchLookup.GROUP], start = new int[BatchLookup.GROUP], idx = new int[BatchLookup.GROUP];
+        for (int base = 0; base < keys.length; base += BatchLookup.GROUP) {
+            int end = Math.min(keys.length, base + BatchLookup.GROUP);
+            int active = 0;
+            for (int i = base; i < end; i++) {
+                int key = keys[i];
+                if (key == EMPTY) { out[i] = emptyKeyCount > 0; continue; }
+                if (key == TOMBSTONE) { out[i] = tombKeyCount > 0; continue; }
+                pos[active] = start[active] = h.index(key, m);
+                idx[active++] = i;
+            }
+            while (active > 0) {
+                int w = 0;
+                for (int j = 0; j < active; j++) {
+                    int i = idx[j], p = pos[j];
+                    int slot = table[p];
+                    if (slot == keys[i]) { out[i] = true; continue; }
+                    if (slot == EMPTY) { out[i] = false; continue; }
+                    p = mask >= 0 ? (p + 1) & mask : (p + 1) % m;
+                    if (p == start[j]) { out[i] = false; continue; }
+                    pos[w] = p; start[w] = start[j]; idx[w++] = i;
+                }
+                active = w;
+            }
+        }
+    }
+
+    private boolean containsIn(int[] t, int tm, int tmask, int key) {
+        int pos = h.index(key, tm);
+        int start = pos;
+        while (t[pos] != EMPTY) {
+            if (t[pos] == key) return true;
+            pos = tmask >= 0 ? (pos + 1) & tmask : (pos + 1) % tm;
+            if (pos == start) break;
+        }
+        return false;
+    }
+
+    // Posições lidas por contains(key) (até achar, achar EMPTY ou dar a volta), sem
+    // migrar nada; para as métricas de distribuição de sondagem (fora do caminho medido)
+    public int probeCount(int key) {
+        if (key == EMPTY || key == TOMBSTONE) return 0;
+        int probes = 0;
+        if (oldTable != null) {
+            probes = probesIn(oldTable, oldM, oldMask, key);
+            if (probes < 0) return -probes;
+        }
+        int p = probesIn(table, m, mask, key);
+        return probes + Math.abs(p);
+    }
+
+    // Leituras até o fim da busca; negativo se achou a chave
+    private int probesIn(int[] t, int tm, int tmask, int key) {
+        int pos = h.index(key, tm);
+        int start = pos;
+        int probes = 1;
+        while (t[pos] != EMPTY) {
+            if (t[pos] == key) return -probes;
+            pos = tmask >= 0 ? (pos + 1) & tmask : (pos + 1) % tm;
+            if (pos == start) break;
+            probes++;
+        }
+        return probes;
+    }
+
+    private void grow() {
+        // se a migração anterior ainda não acabou, termina antes de crescer de novo
+        if (oldTable != null) finishMigration();
+        oldTable = table;
+        oldM = m;
+        oldMask = mask;
+        migrateIdx = 0;
+        allocate(mask >= 0 ? m << 1 : HashFunctions.nextPrime(2 * m));
+        resizes++;
+        if (rehashSlice <= 0) finishMigration();
+    }
+
+    private void migrateStep() {
+        int end = Math.min(oldM, migrateIdx + rehashSlice);
+        for (int i = migrateIdx; i < end; i++) {
+            if (isLive(oldTable[i])) put(oldTable[i]);
+        }
+        migrateIdx = end;
+        if (migrateIdx == oldM) oldTable = null;
+    }
+
+    private void finishMigration() {
+        for (int i = migrateIdx; i < oldM; i++) {
+            if (isLive(oldTable[i])) put(oldTable[i]);
+        }
+        oldTable = null;
+    }
+
+    // Um código por linha (9 dígitos) via Registro.formatInto, sem alocar por chave;
+    // as chaves iguais aos sentinelas e as fora de 0..999.999.999 não são códigos
+    // válidos e ficam de fora (ver CodeExporter)
+    public long exportCodes(OutputStream out) throws IOException {
+        if (oldTable != null) finishMigration();
+        CodeExporter ex = new CodeExporter(out);
+        for (int i = 0; i < m; i++) {
+            if (isLive(table[i])) ex.write(table[i]);
+        }
+        return ex.finish();
+    }
+
+    // Distância média e máxima de cada chave até a posição de origem
+    public ProbeStats probeStats() {
+        if (oldTable != null) finishMigration();
+        long sum = 0; int max = 0; int count = 0;
+        for (int i = 0; i < m; i++) {
+            if (isLive(table[i])) {
+                int home = h.index(table[i], m);
+                int d = i >= home ? i - home : i + m - home;
+                sum += d;
+                max = Math.max(max, d);
+                count++;
+            }
+        }
+        double avg = count == 0 ? 0 : (double) sum / count;
+        return new ProbeStats(avg, max);
+    }
+
+    // Gaps entre posições ocupadas no vetor, pelo bitset mantido (O(m/64 + ocupadas))
+    public GapStats gapStats() {
+        if (oldTable != null) finishMigration();
+        OccupancyBitset.Gaps g = occupied.gaps(true);
+        return new GapStats(g.min(), g.avg(), g.max());
+    }
+
+    public static class GapStats {
+        public final int min; public final double avg; public final int max;
+        public GapStats(int min, double avg, int max) { this.min = min; this.avg = avg; this.max = max; }
+    }
+
+    public static class ProbeStats {
+        public final double avg; public final int max;
+        public ProbeStats(double avg, int max) { this.avg = avg; this.max = max; }
+    }
+}
@@ -0,0 +1,124 @@
+package hash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sondagem linear para várias threads, sem lock.
+ * contains() só lê (getAcquire) e nunca bloqueia; insert() reivindica a posição
+ * com compareAndSet de EMPTY para a chave. Se o CAS perde para outra thread, a
+ * posição já está ocupada e a sondagem segue para a próxima.
+ *
+ * Tamanho fixo e sem remoção: uma chave publicada nunca sai do lugar, então a
+ * busca concorrente não precisa de lápide nem de versão.
+ *
+ * As métricas ficam em contadores por thread (Counters), somados só na leitura;
+ * um long compartilhado como o collisions das outras tabelas viraria ponto de
+ * disputa entre os núcleos.
+ */
+public class HashTableLinearProbingConcurrent {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    static final int EMPTY = -1;
+
+    private final int m;
+    private final int mask; // m - 1 se m é potência de 2, senão -1
+    private final int[] table; // EMPTY ou chave
+    private final HashStrategy h;
+    // cópias da chave igual ao sentinela, guardadas fora do vetor
+    private final AtomicInteger emptyKeyCount = new AtomicInteger();
+
+    // Métricas por thread
+    private final ConcurrentLinkedQueue<Counters> allCounters = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Counters> counters = ThreadLocal.withInitial(() -> {
+        Counters c = new Counters();
+        allCounters.add(c);
+        return c;
+    });
+
+    // Só a thread dona escreve; preenchimento evita dividir linha de cache com o vizinho
+    private static final class Counters {
+        long p0, p1, p2, p3, p4, p5, p6;
+        long inserts;
+        long collisions;
+        long casRetries;
+        long q0, q1, q2, q3, q4, q5, q6;
+    }
+
+    public HashTableLinearProbingConcurrent(int m, HashStrategy hash) {
+        this.m = m;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.h = hash;
+        this.table = new int[m];
+        Arrays.fill(table, EMPTY);
+        VarHandle.releaseFence(); // publica o vetor preenchido antes de qualquer CAS
+    }
+
+    // Somas abaixo são exatas depois do join das threads que escreveram
+    public void clearMetrics() {
+        for (Counters c : allCounters) { c.collisions = 0; c.casRetries = 0; }
+    }
+
+    public long getCollisions() {
+        long sum = 0;
+        for (Counters c : allCounters) sum += c.collisions;
+        return sum;
+    }
+
+    public long getCasRetries() {
+        long sum = 0;
+        for (Counters c : allCounters) sum += c.casRetries;
+        return sum;
+    }
+
+    public int size() {
+        long sum = emptyKeyCount.get();
+        for (Counters c : allCounters) sum += c.inserts;
+        return (int) sum;
+    }
+
+    public int capacity() { return m; }
+    // Bytes retidos: o vetor e os contadores preenchidos de cada thread que já escreveu
+    public long footprint() {
+        long sum = Footprint.of(table);
+        for (Counters c : allCounters) sum += Footprint.object(17 * 8);
+        return sum;
+    }
+
+    public void insert(int key) {
+        if (key == EMPTY) {
+            emptyKeyCount.incrementAndGet();
+            return;
+        }
+        Counters c = counters.get();
+        int pos = h.index(key, m);
+        int start = pos;
+        while (true) {
+            int cur = (int) SLOT.getAcquire(table, pos);
+            if (cur == EMPTY) {
+                if (SLOT.compareAndSet(table, pos, EMPTY, key)) break;
+                c.casRetries++; // outra thread ocupou a posição entre a leitura e o CAS
+            }
+            c.collisions++;
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            if (pos == start) throw new IllegalStateException("Tabela cheia");
+        }
+        c.inserts++;
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) return emptyKeyCount.get() > 0;
+        int pos = h.index(key, m);
+        int start = pos;
+        int cur;
+        while ((cur = (int) SLOT.getAcquire(table, pos)) != EMPTY) {
+            if (cur == key) return true;
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            if (pos == start) break;
+        }
+        return false;
+    }
+}
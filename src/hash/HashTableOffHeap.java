@@ -0,0 +1,271 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endereçamento aberto (sondagem linear ou hash duplo) com as posições fora do
+ * heap: o vetor vive num ByteBuffer direto ou, com arquivo, num MappedByteBuffer
+ * (FileChannel.map). O GC não vê nem percorre os m * 4 bytes da tabela.
+ *
+ * Mesmo esquema de posições de HashTableLinearProbing/HashTableDoubleHashing:
+ * EMPTY (-1), TOMBSTONE (Integer.MIN_VALUE) ou a chave; chaves iguais aos
+ * sentinelas só são contadas. Tamanho fixo (sem crescimento): remapear o
+ * arquivo a cada crescimento anularia a vantagem de reabrir sem reconstruir.
+ *
+ * Layout do buffer (little-endian): cabeçalho de HEADER_BYTES e depois m ints.
+ * Com arquivo, flush()/close() gravam os contadores no cabeçalho, e abrir o
+ * mesmo arquivo depois de reiniciar devolve a tabela pronta, sem reinserir nada.
+ */
+public class HashTableOffHeap implements AutoCloseable {
+    static final int EMPTY = -1;
+    static final int TOMBSTONE = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x4F464848; // "HHFO"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    // posições dos campos do cabeçalho
+    private static final int H_MAGIC = 0, H_VERSION = 4, H_M = 8, H_HASH = 12, H_DOUBLE = 16,
+            H_SIZE = 20, H_EMPTY_KEYS = 24, H_TOMB_KEYS = 28, H_TOMBSTONES = 32;
+
+    private static final double TOMBSTONE_LIMIT = 0.25; // fração de m
+
+    private final int m;
+    private final int mask; // m - 1 se m é potência de 2, senão -1
+    private final HashStrategy h;
+    private final boolean doubleHashing;
+    private final ByteBuffer buf;
+    private final boolean mapped;
+    private final boolean reopened;
+
+    private int size = 0;
+    private int emptyKeyCount = 0;
+    private int tombKeyCount = 0;
+    private int tombstones = 0;
+    private int cleanups = 0;
+
+    // Métricas
+    private long collisions = 0;
+
+    // Tabela em memória direta (sem arquivo)
+    public HashTableOffHeap(int m, HashStrategy hash, boolean doubleHashing) {
+        this.m = m;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.h = hash;
+        this.doubleHashing = doubleHashing;
+        this.buf = ByteBuffer.allocateDirect(bytesFor(m)).order(ByteOrder.LITTLE_ENDIAN);
+        this.mapped = false;
+        this.reopened = false;
+        clearSlots();
+        writeHeader();
+    }
+
+    // Tabela mapeada de arquivo: reabre se o arquivo já existe, senão cria
+    public HashTableOffHeap(Path file, int m, HashStrategy hash, boolean doubleHashing) throws IOException {
+        this.m = m;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.h = hash;
+        this.doubleHashing = doubleHashing;
+        this.mapped = true;
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        if (exists && Files.size(file) != bytesFor(m)) {
+            throw new IOException("Arquivo " + file + " não tem o tamanho de uma tabela com m=" + m);
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // o mapeamento continua válido depois de fechar o canal
+            this.buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytesFor(m)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        this.reopened = exists;
+        if (exists) {
+            readHeader(file);
+        } else {
+            clearSlots();
+            writeHeader();
+        }
+    }
+
+    private static int bytesFor(int m) {
+        if (m > (Integer.MAX_VALUE - HEADER_BYTES) / 4) throw new IllegalArgumentException("m grande demais para um buffer: " + m);
+        return HEADER_BYTES + m * 4;
+    }
+
+    private void clearSlots() {
+        for (int i = 0; i < m; i++) setSlot(i, EMPTY);
+    }
+
+    private void readHeader(Path file) throws IOException {
+        if (buf.getInt(H_MAGIC) != MAGIC || buf.getInt(H_VERSION) != VERSION) {
+            throw new IOException("Arquivo " + file + " não é uma tabela off-heap (versão " + VERSION + ")");
+        }
+        if (buf.getInt(H_M) != m || buf.getInt(H_HASH) != h.id() || (buf.getInt(H_DOUBLE) != 0) != doubleHashing) {
+            throw new IOException("Arquivo " + file + " foi criado com outros parâmetros (m, hash ou sondagem)");
+        }
+        size = buf.getInt(H_SIZE);
+        emptyKeyCount = buf.getInt(H_EMPTY_KEYS);
+        tombKeyCount = buf.getInt(H_TOMB_KEYS);
+        tombstones = buf.getInt(H_TOMBSTONES);
+    }
+
+    private void writeHeader() {
+        buf.putInt(H_MAGIC, MAGIC);
+        buf.putInt(H_VERSION, VERSION);
+        buf.putInt(H_M, m);
+        buf.putInt(H_HASH, h.id());
+        buf.putInt(H_DOUBLE, doubleHashing ? 1 : 0);
+        buf.putInt(H_SIZE, size);
+        buf.putInt(H_EMPTY_KEYS, emptyKeyCount);
+        buf.putInt(H_TOMB_KEYS, tombKeyCount);
+        buf.putInt(H_TOMBSTONES, tombstones);
+    }
+
+    // Grava os contadores no cabeçalho e, se mapeada, força as páginas para o disco
+    public void flush() {
+        writeHeader();
+        if (mapped) ((MappedByteBuffer) buf).force();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    public void clearMetrics() { collisions = 0; }
+    public long getCollisions() { return collisions; }
+    public int size() { return size; }
+    public int capacity() { return m; }
+    // Bytes do buffer, fora do heap (cabeçalho + m ints)
+    public long footprint() { return buf.capacity(); }
+    public int getTombstones() { return tombstones; }
+    public int getCleanups() { return cleanups; }
+    public boolean isReopened() { return reopened; }
+
+    private int slot(int i) {
+        return buf.getInt(HEADER_BYTES + (i << 2));
+    }
+
+    private void setSlot(int i, int v) {
+        buf.putInt(HEADER_BYTES + (i << 2), v);
+    }
+
+    private static boolean isLive(int slot) {
+        return slot != EMPTY && slot != TOMBSTONE;
+    }
+
+    private int step(int key) {
+        if (!doubleHashing) return 1;
+        return mask >= 0 ? HashFunctions.doubleHashSecondaryPow2(key, mask) : HashFunctions.doubleHashSecondary(key, m);
+    }
+
+    // i-ésima posição da sondagem que começa em base
+    private int probe(int base, int i, int step) {
+        if (!doubleHashing) return mask >= 0 ? (base + i) & mask : (base + i) % m;
+        return mask >= 0 ? (base + i * step) & mask : (base + i * step) % m;
+    }
+
+    public void insert(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            if (key == EMPTY) emptyKeyCount++; else tombKeyCount++;
+            size++;
+            return;
+        }
+        put(key);
+        size++;
+    }
+
+    private void put(int key) {
+        int base = h.index(key, m);
+        int step = step(key);
+        int pos = base;
+        int i = 0;
+        while (isLive(slot(pos))) {
+            collisions++;
+            if (++i == m) throw new IllegalStateException("Tabela cheia");
+            pos = probe(base, i, step);
+        }
+        if (slot(pos) == TOMBSTONE) tombstones--; // reaproveitou uma lápide
+        setSlot(pos, key);
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) return emptyKeyCount > 0;
+        if (key == TOMBSTONE) return tombKeyCount > 0;
+        return find(key) >= 0;
+    }
+
+    private int find(int key) {
+        int base = h.index(key, m);
+        int step = step(key);
+        int pos = base;
+        int i = 0;
+        int s;
+        while ((s = slot(pos)) != EMPTY) {
+            if (s == key) return pos;
+            if (++i == m) break;
+            pos = probe(base, i, step);
+        }
+        return -1;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMBSTONE) {
+            if (key == EMPTY ? emptyKeyCount == 0 : tombKeyCount == 0) return false;
+            if (key == EMPTY) emptyKeyCount--; else tombKeyCount--;
+            size--;
+            return true;
+        }
+        int pos = find(key);
+        if (pos < 0) return false;
+        setSlot(pos, TOMBSTONE);
+        tombstones++;
+        size--;
+        if (tombstones > TOMBSTONE_LIMIT * m) purgeTombstones();
+        return true;
+    }
+
+    // Um código por linha via Registro.formatInto (ver HashTableLinearProbing.exportCodes)
+    public long exportCodes(OutputStream out) throws IOException {
+        CodeExporter ex = new CodeExporter(out);
+        for (int i = 0; i < m; i++) {
+            int s = slot(i);
+            if (isLive(s)) ex.write(s);
+        }
+        return ex.finish();
+    }
+
+    // Reconstrói a tabela no mesmo buffer, descartando as lápides, sem copiar as chaves
+    // (ver HashTableLinearProbing.purgeTombstones). As posições fixadas ficam num bitset
+    // temporário de m bits, fora do buffer: m/8 bytes no heap em vez de 4 bytes por chave.
+    private void purgeTombstones() {
+        for (int i = 0; i < m; i++) {
+            if (slot(i) == TOMBSTONE) setSlot(i, EMPTY);
+        }
+        tombstones = 0;
+        OccupancyBitset placed = new OccupancyBitset(m);
+        for (int i = 0; i < m; i++) {
+            int key;
+            while ((key = slot(i)) != EMPTY && !placed.get(i)) {
+                int base = h.index(key, m);
+                int step = step(key);
+                int pos = base;
+                int k = 0;
+                while (placed.get(pos)) {
+                    collisions++;
+                    pos = probe(base, ++k, step);
+                }
+                placed.set(pos);
+                if (pos == i) break;
+                setSlot(i, slot(pos)); // EMPTY, ou uma chave ainda não fixada
+                setSlot(pos, key);
+            }
+        }
+        cleanups++;
+    }
+}
@@ -0,0 +1,209 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Endereçamento aberto com sondagem linear Robin Hood.
+ * dist[pos] guarda a distância da chave até sua posição de origem (-1 = vazio).
+ * Na inserção, quem está mais perto de casa cede a posição ("rouba dos ricos"),
+ * o que achata a variância das sondagens; na busca, achar uma posição com
+ * dist menor que a distância percorrida prova que a chave não está na tabela.
+ * Remoção por deslocamento para trás (sem lápides). As trocas da inserção e o
+ * deslocamento da remoção só mudam a ocupação de uma posição, a do fim, que é
+ * marcada no OccupancyBitset usado por gapStats.
+ * save/load gravam table[] e dist[] num SnapshotFile, sem reinserir no load.
+ */
+public class HashTableRobinHood {
+    private final int m;
+    private final int mask; // m - 1 se m é potência de 2, senão -1
+    private final int[] table; // -1 = vazio
+    private final int[] dist;  // -1 = vazio
+    private final OccupancyBitset occupied; // dist[pos] >= 0
+    private final HashStrategy h;
+    private int size = 0;
+
+    // Métricas
+    private long collisions = 0;
+
+    public HashTableRobinHood(int m, HashStrategy hash) {
+        this.m = m;
+        this.h = hash;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.table = new int[m];
+        Arrays.fill(table, -1);
+        this.dist = new int[m];
+        Arrays.fill(dist, -1);
+        this.occupied = new OccupancyBitset(m);
+    }
+
+    // Reconstrói a partir de um snapshot (ver save)
+    private HashTableRobinHood(SnapshotFile.Reader r) throws IOException {
+        this.h = r.hash;
+        this.size = r.scalarInt();
+        this.m = r.m;
+        this.mask = (m & (m - 1)) == 0 ? m - 1 : -1;
+        this.table = r.ints();
+        this.dist = r.ints();
+        this.occupied = OccupancyBitset.of(m, i -> dist[i] >= 0); // o snapshot não grava o bitset
+    }
+
+    public static HashTableRobinHood load(Path file) throws IOException {
+        return new HashTableRobinHood(SnapshotFile.Reader.open(file, SnapshotFile.ROBIN));
+    }
+
+    public void save(Path file) throws IOException {
+        new SnapshotFile.Writer(SnapshotFile.ROBIN, m, h)
+                .scalar(size)
+                .ints(table, m)
+                .ints(dist, m)
+                .write(file);
+    }
+
+    public void clearMetrics() { collisions = 0; }
+    public long getCollisions() { return collisions; }
+    public int size() { return size; }
+    public int capacity() { return m; }
+    // Bytes retidos pelos vetores (ver Footprint); os campos escalares da tabela não entram
+    public long footprint() { return Footprint.of(table) + Footprint.of(dist) + occupied.footprint(); }
+
+    public void insert(int key) {
+        insertProbeCount(key);
+    }
+
+    // insert que devolve as posições tentadas (colisões desta chave + 1; as trocas não
+    // recomeçam a sondagem); para os percentis de --opstats
+    public int insertProbeCount(int key) {
+        if (size == m) throw new IllegalStateException("Tabela cheia");
+        int probes = 1;
+        int pos = h.index(key, m);
+        int d = 0;
+        while (dist[pos] >= 0) {
+            if (dist[pos] < d) {
+                // a chave residente está mais perto de casa: troca e segue com ela
+                int k = table[pos]; table[pos] = key; key = k;
+                int t = dist[pos]; dist[pos] = d; d = t;
+            }
+            collisions++;
+            probes++;
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            d++;
+        }
+        table[pos] = key;
+        dist[pos] = d;
+        occupied.set(pos);
+        size++;
+        return probes;
+    }
+
+    public boolean contains(int key) {
+        return find(key) >= 0;
+    }
+
+    // contains para um lote, com as sondagens de BatchLookup.GROUP chaves intercaladas
+    // (ver HashTableLinearProbing.containsBatch)
+    public void containsBatch(int[] keys, boolean[] out) {
+        int[] pos = new int[BatchLookup.GROUP], d = new int[BatchLookup.GROUP], idx = new int[BatchLookup.GROUP];
+        for (int from = 0; from < keys.length; from += BatchLookup.GROUP) {
+            int end = Math.min(keys.length, from + BatchLookup.GROUP);
+            int active = 0;
+            for (int i = from; i < end; i++) {
+                pos[active] = h.index(keys[i], m);
+                d[active] = 0;
+                idx[active++] = i;
+            }
+            while (active > 0) {
+                int w = 0;
+                for (int j = 0; j < active; j++) {
+                    int i = idx[j], p = pos[j];
+                    if (dist[p] < d[j]) { out[i] = false; continue; }
+                    if (table[p] == keys[i]) { out[i] = true; continue; }
+                    pos[w] = mask >= 0 ? (p + 1) & mask : (p + 1) % m;
+                    d[w] = d[j] + 1; idx[w++] = i;
+                }
+                active = w;
+            }
+        }
+    }
+
+    private int find(int key) {
+        int pos = h.index(key, m);
+        int d = 0;
+        while (dist[pos] >= d) {
+            if (table[pos] == key) return pos;
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            d++;
+        }
+        return -1;
+    }
+
+    // Posições lidas por contains(key); para as métricas de distribuição de sondagem
+    public int probeCount(int key) {
+        int pos = h.index(key, m);
+        int d = 0;
+        while (dist[pos] >= d) {
+            if (table[pos] == key) return d + 1;
+            pos = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+            d++;
+        }
+        return d + 1;
+    }
+
+    public boolean remove(int key) {
+        int pos = find(key);
+        if (pos < 0) return false;
+        int nxt = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+        while (dist[nxt] > 0) {
+            table[pos] = table[nxt];
+            dist[pos] = dist[nxt] - 1;
+            pos = nxt;
+            nxt = mask >= 0 ? (pos + 1) & mask : (pos + 1) % m;
+        }
+        table[pos] = -1;
+        dist[pos] = -1;
+        occupied.clear(pos);
+        size--;
+        return true;
+    }
+
+    // Um código por linha via Registro.formatInto, sem alocar por chave
+    public long exportCodes(OutputStream out) throws IOException {
+        CodeExporter ex = new CodeExporter(out);
+        for (int i = 0; i < m; i++) {
+            if (dist[i] >= 0) ex.write(table[i]);
+        }
+        return ex.finish();
+    }
+
+    // Distância média e máxima até a posição de origem (comprimento de sondagem - 1)
+    public ProbeStats probeStats() {
+        long sum = 0; int max = 0; int count = 0;
+        for (int i = 0; i < m; i++) {
+            if (dist[i] >= 0) {
+                sum += dist[i];
+                max = Math.max(max, dist[i]);
+                count++;
+            }
+        }
+        double avg = count == 0 ? 0 : (double) sum / count;
+        return new ProbeStats(avg, max);
+    }
+
+    // Gaps pelo bitset mantido (ver HashTableLinearProbing.gapStats)
+    public GapStats gapStats() {
+        OccupancyBitset.Gaps g = occupied.gaps(true);
+        return new GapStats(g.min(), g.avg(), g.max());
+    }
+
+    public static class GapStats {
+        public final int min; public final double avg; public final int max;
+        public GapStats(int min, double avg, int max) { this.min = min; this.avg = avg; this.max = max; }
+    }
+
+    public static class ProbeStats {
+        public final double avg; public final int max;
+        public ProbeStats(double avg, int max) { this.avg = avg; this.max = max; }
+    }
+}
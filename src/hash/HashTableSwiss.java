@@ -0,0 +1,263 @@
+package hash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Endereçamento aberto em grupos de 16 posições (layout "Swiss table").
+ * ctrl[pos] guarda 7 bits da hash (h2) quando ocupada, ou EMPTY/DELETED;
+ * a busca compara os 16 bytes de um grupo de uma vez (Vector API ou SWAR)
+ * e só lê keys[] nas posições cujo h2 casou.
+ *
+ * A capacidade é potência de 2 (>= m) e a sondagem entre grupos é triangular.
+ * Cresce para o dobro quando ocupadas + lápides passam de 7/8 da capacidade.
+ * As posições ocupadas ficam também num OccupancyBitset, para gapStats.
+ * save/load gravam ctrl[] e keys[] num SnapshotFile, sem reinserir no load.
+ */
+public class HashTableSwiss {
+    static final int GROUP = 16;
+    static final byte EMPTY = (byte) 0x80;
+    static final byte DELETED = (byte) 0xFE;
+
+    // escolhido uma vez por JVM; static final deixa a chamada monomórfica
+    private static final SwissGroupMatcher MATCHER = pickMatcher();
+
+    private int capacity;
+    private int groupMask;
+    private byte[] ctrl;
+    private int[] keys;
+    private OccupancyBitset occupied; // ctrl[pos] >= 0
+    private final HashStrategy h;
+    private int size = 0;
+    private int tombstones = 0;
+    private int growAt;
+    private int resizes = 0;
+
+    // Métricas
+    private long collisions = 0;
+
+    public HashTableSwiss(int m, HashStrategy hash) {
+        this.h = hash;
+        int cap = GROUP;
+        while (cap < m) cap <<= 1;
+        allocate(cap);
+    }
+
+    // Reconstrói a partir de um snapshot (ver save); m do cabeçalho = capacidade
+    private HashTableSwiss(SnapshotFile.Reader r) throws IOException {
+        this.h = r.hash;
+        this.size = r.scalarInt();
+        this.tombstones = r.scalarInt();
+        this.resizes = r.scalarInt();
+        this.capacity = r.m;
+        this.groupMask = capacity / GROUP - 1;
+        this.growAt = capacity - capacity / 8;
+        this.ctrl = r.bytes();
+        this.keys = r.ints();
+        this.occupied = OccupancyBitset.of(capacity, i -> ctrl[i] >= 0); // o snapshot não grava o bitset
+    }
+
+    public static HashTableSwiss load(Path file) throws IOException {
+        return new HashTableSwiss(SnapshotFile.Reader.open(file, SnapshotFile.SWISS));
+    }
+
+    public void save(Path file) throws IOException {
+        new SnapshotFile.Writer(SnapshotFile.SWISS, capacity, h)
+                .scalar(size).scalar(tombstones).scalar(resizes)
+                .bytes(ctrl)
+                .ints(keys, capacity)
+                .write(file);
+    }
+
+    private static SwissGroupMatcher pickMatcher() {
+        boolean vector = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && !Boolean.getBoolean("hash.swiss.swar");
+        return vector ? new SwissVectorMatcher() : new SwissSwarMatcher();
+    }
+
+    // "vector" ou "swar", para registrar junto dos resultados
+    public static String matcherName() {
+        return MATCHER instanceof SwissSwarMatcher ? "swar" : "vector";
+    }
+
+    private void allocate(int cap) {
+        capacity = cap;
+        groupMask = cap / GROUP - 1;
+        ctrl = new byte[cap];
+        Arrays.fill(ctrl, EMPTY);
+        keys = new int[cap];
+        occupied = new OccupancyBitset(cap);
+        tombstones = 0;
+        growAt = cap - cap / 8;
+    }
+
+    public void clearMetrics() { collisions = 0; }
+    public long getCollisions() { return collisions; }
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+    // Bytes retidos pelos vetores (ver Footprint); os campos escalares da tabela não entram
+    public long footprint() { return Footprint.of(ctrl) + Footprint.of(keys) + occupied.footprint(); }
+    public int getResizes() { return resizes; }
+
+    // hash em [0, grupos * 128): 7 bits baixos = h2, resto = grupo inicial
+    private int hashOf(int key) {
+        return h.index(key, (groupMask + 1) << 7);
+    }
+
+    public void insert(int key) {
+        if (size + tombstones >= growAt) {
+            // muitas lápides: reconstrói no mesmo tamanho; senão dobra
+            rehash(size >= capacity / 2 ? capacity << 1 : capacity);
+        }
+        place(key, hashOf(key));
+        size++;
+    }
+
+    // insert que devolve os grupos tentados para a própria chave (sem os do rehash);
+    // para os percentis de --opstats
+    public int insertProbeCount(int key) {
+        if (size + tombstones >= growAt) {
+            rehash(size >= capacity / 2 ? capacity << 1 : capacity);
+        }
+        int groups = place(key, hashOf(key));
+        size++;
+        return groups;
+    }
+
+    // Devolve os grupos tentados (colisões desta chave + 1)
+    private int place(int key, int hv) {
+        int g = hv >>> 7;
+        for (int i = 0; ; i++) {
+            int base = g * GROUP;
+            int free = MATCHER.matchFree(ctrl, base);
+            if (free != 0) {
+                int slot = base + Integer.numberOfTrailingZeros(free);
+                if (ctrl[slot] == DELETED) tombstones--;
+                ctrl[slot] = (byte) (hv & 0x7F);
+                keys[slot] = key;
+                occupied.set(slot);
+                return i + 1;
+            }
+            collisions++;
+            g = (g + i + 1) & groupMask;
+        }
+    }
+
+    public boolean contains(int key) {
+        return find(key) >= 0;
+    }
+
+    private int find(int key) {
+        int hv = hashOf(key);
+        byte h2 = (byte) (hv & 0x7F);
+        int g = hv >>> 7;
+        for (int i = 0; i <= groupMask; i++) {
+            int base = g * GROUP;
+            int hits = MATCHER.match(ctrl, base, h2);
+            while (hits != 0) {
+                int slot = base + Integer.numberOfTrailingZeros(hits);
+                if (keys[slot] == key) return slot;
+                hits &= hits - 1;
+            }
+            if (MATCHER.matchEmpty(ctrl, base) != 0) return -1;
+            g = (g + i + 1) & groupMask;
+        }
+        return -1;
+    }
+
+    // Grupos de GROUP posições lidos por contains(key); para as métricas de sondagem
+    public int probeCount(int key) {
+        int hv = hashOf(key);
+        byte h2 = (byte) (hv & 0x7F);
+        int g = hv >>> 7;
+        for (int i = 0; i <= groupMask; i++) {
+            int base = g * GROUP;
+            int hits = MATCHER.match(ctrl, base, h2);
+            while (hits != 0) {
+                if (keys[base + Integer.numberOfTrailingZeros(hits)] == key) return i + 1;
+                hits &= hits - 1;
+            }
+            if (MATCHER.matchEmpty(ctrl, base) != 0) return i + 1;
+            g = (g + i + 1) & groupMask;
+        }
+        return groupMask + 1;
+    }
+
+    // contains para um lote: calcula a hash de um grupo de chaves antes de ler
+    // ctrl[] e avança as sondagens pendentes um grupo de 16 posições por vez,
+    // intercalando as chaves (ver HashTableLinearProbing.containsBatch)
+    public void containsBatch(int[] keys, boolean[] out) {
+        int[] hv = new int[BatchLookup.GROUP], g = new int[BatchLookup.GROUP];
+        int[] probe = new int[BatchLookup.GROUP], idx = new int[BatchLookup.GROUP];
+        for (int from = 0; from < keys.length; from += BatchLookup.GROUP) {
+            int end = Math.min(keys.length, from + BatchLookup.GROUP);
+            int active = 0;
+            for (int i = from; i < end; i++) {
+                int v = hashOf(keys[i]);
+                hv[active] = v;
+                g[active] = v >>> 7;
+                probe[active] = 0;
+                idx[active++] = i;
+            }
+            while (active > 0) {
+                int w = 0;
+                for (int j = 0; j < active; j++) {
+                    int i = idx[j], base = g[j] * GROUP;
+                    int hits = MATCHER.match(ctrl, base, (byte) (hv[j] & 0x7F));
+                    boolean found = false;
+                    while (hits != 0 && !found) {
+                        found = keys[i] == this.keys[base + Integer.numberOfTrailingZeros(hits)];
+                        hits &= hits - 1;
+                    }
+                    if (found) { out[i] = true; continue; }
+                    int k = probe[j];
+                    if (MATCHER.matchEmpty(ctrl, base) != 0 || k + 1 > groupMask) { out[i] = false; continue; }
+                    hv[w] = hv[j]; g[w] = (g[j] + k + 1) & groupMask; probe[w] = k + 1; idx[w++] = i;
+                }
+                active = w;
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) return false;
+        ctrl[slot] = DELETED;
+        occupied.clear(slot);
+        tombstones++;
+        size--;
+        return true;
+    }
+
+    private void rehash(int newCap) {
+        byte[] oldCtrl = ctrl;
+        int[] oldKeys = keys;
+        allocate(newCap);
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) place(oldKeys[i], hashOf(oldKeys[i]));
+        }
+        resizes++;
+    }
+
+    // Um código por linha via Registro.formatInto, sem alocar por chave
+    public long exportCodes(OutputStream out) throws IOException {
+        CodeExporter ex = new CodeExporter(out);
+        for (int i = 0; i < capacity; i++) {
+            if (ctrl[i] >= 0) ex.write(keys[i]);
+        }
+        return ex.finish();
+    }
+
+    // Gaps pelo bitset mantido (ver HashTableLinearProbing.gapStats)
+    public GapStats gapStats() {
+        OccupancyBitset.Gaps g = occupied.gaps(true);
+        return new GapStats(g.min(), g.avg(), g.max());
+    }
+
+    public static class GapStats {
+        public final int min; public final double avg; public final int max;
+        public GapStats(int min, double avg, int max) { this.min = min; this.avg = avg; this.max = max; }
+    }
+}
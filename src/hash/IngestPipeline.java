@@ -0,0 +1,103 @@
+package hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.PrimitiveIterator;
+
+/**
+ * Estágio de ingestão contínua: puxa chaves em lotes de tamanho fixo de uma
+ * fonte (iterador ou canal), descarta as que violam a regra de Registro
+ * (Registro.codigoValido, sem criar um Registro por chave) e entrega o lote
+ * válido à tabela.
+ *
+ * Durante a execução, a cada reportEveryNs, chama o Reporter com a vazão da
+ * janela que acabou e os percentis acumulados da latência por lote
+ * (validação + inserção). O vetor do lote e o histograma são reaproveitados:
+ * o laço não aloca nada por chave nem por lote.
+ */
+public final class IngestPipeline {
+
+    // Preenche batch[0..n) e devolve n; 0 no fim da fonte
+    public interface Source {
+        int fill(int[] batch) throws IOException;
+    }
+
+    // Recebe as len primeiras posições do lote (todas válidas)
+    public interface Sink {
+        void accept(int[] keys, int len);
+    }
+
+    public interface Reporter {
+        void report(long elapsedNs, long keys, long rejected, double windowOpsPerSec, LatencyHistogram batchLatency);
+    }
+
+    private final int batchSize;
+    private final long reportEveryNs;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long keys = 0;
+    private long rejected = 0;
+    private long elapsedNs = 0;
+
+    public IngestPipeline(int batchSize, long reportEveryNs) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize deve ser > 0");
+        this.batchSize = batchSize;
+        this.reportEveryNs = reportEveryNs;
+    }
+
+    public long keys() { return keys; }
+    public long rejected() { return rejected; }
+    public long elapsedNs() { return elapsedNs; }
+    public LatencyHistogram batchLatency() { return latency; }
+
+    public void run(Source source, Sink sink, Reporter reporter) throws IOException {
+        int[] batch = new int[batchSize];
+        long start = System.nanoTime();
+        long windowStart = start, windowKeys = 0;
+        int n;
+        while ((n = source.fill(batch)) > 0) {
+            long t0 = System.nanoTime();
+            int w = 0;
+            for (int i = 0; i < n; i++) {
+                int k = batch[i];
+                if (Registro.codigoValido(k)) batch[w++] = k;
+            }
+            sink.accept(batch, w);
+            long t1 = System.nanoTime();
+            latency.record(t1 - t0);
+            keys += w;
+            rejected += n - w;
+            windowKeys += w;
+            if (reporter != null && t1 - windowStart >= reportEveryNs) {
+                reporter.report(t1 - start, keys, rejected, windowKeys * 1e9 / (t1 - windowStart), latency);
+                windowStart = t1;
+                windowKeys = 0;
+            }
+        }
+        elapsedNs = System.nanoTime() - start;
+    }
+
+    public static Source fromIterator(PrimitiveIterator.OfInt it) {
+        return batch -> {
+            int n = 0;
+            while (n < batch.length && it.hasNext()) batch[n++] = it.nextInt();
+            return n;
+        };
+    }
+
+    // ints little-endian, como os arquivos de DatasetFile; bytes soltos no fim são ignorados
+    public static Source fromChannel(ReadableByteChannel ch, int batchSize) {
+        ByteBuffer buf = ByteBuffer.allocateDirect(batchSize * 4).order(ByteOrder.LITTLE_ENDIAN);
+        return batch -> {
+            buf.clear().limit(Math.min(buf.capacity(), batch.length * 4));
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) break;
+            }
+            buf.flip();
+            int n = buf.remaining() >>> 2;
+            for (int i = 0; i < n; i++) batch[i] = buf.getInt();
+            return n;
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package hash;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de latências (ns) em baldes log-lineares: cada potência de 2 é
+ * dividida em 2^SUB_BITS baldes, então o erro de um percentil fica abaixo de
+ * 1/2^SUB_BITS (~3%). record() não aloca nada; o vetor de contagens é fixo.
+ * Serve para qualquer valor inteiro não negativo (também comprimentos de
+ * sondagem, que abaixo de 2^SUB_BITS ficam exatos).
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long[] counts = new long[64 * SUB];
+    private long total = 0;
+    private long max = 0;
+
+    public void record(long ns) {
+        if (ns < 0) ns = 0;
+        counts[indexOf(ns)]++;
+        total++;
+        if (ns > max) max = ns;
+    }
+
+    private static int indexOf(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) (v >>> shift) - SUB;
+    }
+
+    // maior valor que cai no balde idx
+    private static long upperBound(int idx) {
+        if (idx < SUB) return idx;
+        int shift = (idx >>> SUB_BITS) - 1;
+        long sub = (idx & (SUB - 1)) + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    // p em (0, 1]; devolve o limite superior do balde que contém o percentil
+    public long percentile(double p) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+}
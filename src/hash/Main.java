@@ -1,3 +1,5 @@
+package hash;
+
 public class Main {
     public static void main(String[] args) {
         try {
@@ -6,6 +8,7 @@ public class Main {
             System.out.println("Concluído. Resultados em results/metrics.csv");
         } catch (Exception e) {
             e.printStackTrace();
+            System.exit(1); // código != 0 para o ExperimentScheduler (--fork)
         }
     }
 }
@@ -0,0 +1,263 @@
+package hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saída das métricas de ExperimentRunner sem String.format nem escrita por
+ * linha: cada linha é montada direto num ByteBuffer preallocado de BUF_BYTES,
+ * que vai para o arquivo via FileChannel quando enche e no close(). Valores são
+ * long ou double, escritos dígito a dígito; nada é alocado por linha.
+ *
+ * Dois formatos:
+ *  - CSV: o esquema de sempre (run_id,table_type,table_m,hash_name,data_n,phase,metric,value).
+ *    Doubles saem com até 6 casas decimais (Double.toString só fora de [1e-6, 1e12)).
+ *  - binário (little-endian): MAGIC, VERSION e depois registros. As strings
+ *    (tipo, hash, fase, métrica) viram ids de um dicionário; cada uma é definida
+ *    (REC_DEF: id, comprimento, bytes UTF-8) antes do primeiro registro que a usa.
+ *    Um registro de métrica tem tamanho fixo: tag, 7 ints e o valor em 8 bytes.
+ *
+ * toCsv converte o binário no CSV de sempre, para os scripts de análise:
+ *   java -cp target/benchmarks.jar hash.MetricsSink --to-csv=results/metrics.bin
+ */
+public final class MetricsSink implements AutoCloseable {
+    static final int MAGIC = 0x5254454D; // "METR"
+    static final int VERSION = 1;
+    static final String CSV_HEADER = "run_id,table_type,table_m,hash_name,data_n,phase,metric,value\n";
+
+    private static final int BUF_BYTES = 1 << 16;
+    private static final int MAX_ROW = 1 << 10; // espaço livre garantido antes de cada linha
+    private static final byte REC_DEF = 0, REC_LONG = 1, REC_DOUBLE = 2;
+    private static final long FRAC_SCALE = 1_000_000L; // 6 casas decimais no CSV
+
+    private final FileChannel ch;
+    private final boolean binary;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUF_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] digits = new byte[20];
+    private final Map<String, Integer> dict = new HashMap<>();
+
+    private MetricsSink(Path file, boolean binary) throws IOException {
+        this.ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.binary = binary;
+        if (binary) {
+            buf.putInt(MAGIC).putInt(VERSION);
+        } else {
+            putAscii(CSV_HEADER);
+        }
+    }
+
+    static MetricsSink csv(Path file) throws IOException {
+        return new MetricsSink(file, false);
+    }
+
+    static MetricsSink binary(Path file) throws IOException {
+        return new MetricsSink(file, true);
+    }
+
+    void row(int runId, String tableType, int m, String hashName, int n, String phase, String metric,
+             long value) throws IOException {
+        if (binary) {
+            header(REC_LONG, runId, tableType, m, hashName, n, phase, metric);
+            buf.putLong(value);
+        } else {
+            csvPrefix(runId, tableType, m, hashName, n, phase, metric);
+            putLong(value);
+            buf.put((byte) '\n');
+        }
+    }
+
+    void row(int runId, String tableType, int m, String hashName, int n, String phase, String metric,
+             double value) throws IOException {
+        if (binary) {
+            header(REC_DOUBLE, runId, tableType, m, hashName, n, phase, metric);
+            buf.putDouble(value);
+        } else {
+            csvPrefix(runId, tableType, m, hashName, n, phase, metric);
+            putDouble(value);
+            buf.put((byte) '\n');
+        }
+    }
+
+    private void csvPrefix(int runId, String tableType, int m, String hashName, int n, String phase,
+                           String metric) throws IOException {
+        ensure(MAX_ROW + tableType.length() + hashName.length() + phase.length() + metric.length());
+        putLong(runId);
+        buf.put((byte) ',');
+        putAscii(tableType);
+        buf.put((byte) ',');
+        putLong(m);
+        buf.put((byte) ',');
+        putAscii(hashName);
+        buf.put((byte) ',');
+        putLong(n);
+        buf.put((byte) ',');
+        putAscii(phase);
+        buf.put((byte) ',');
+        putAscii(metric);
+        buf.put((byte) ',');
+    }
+
+    private void header(byte tag, int runId, String tableType, int m, String hashName, int n, String phase,
+                        String metric) throws IOException {
+        int t = id(tableType), h = id(hashName), p = id(phase), mt = id(metric);
+        ensure(1 + 7 * 4 + 8);
+        buf.put(tag).putInt(runId).putInt(t).putInt(m).putInt(h).putInt(n).putInt(p).putInt(mt);
+    }
+
+    // id da string no dicionário; a primeira ocorrência grava a definição
+    private int id(String s) throws IOException {
+        Integer id = dict.get(s);
+        if (id != null) return id;
+        int next = dict.size();
+        dict.put(s, next);
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        ensure(1 + 4 + 4 + b.length);
+        buf.put(REC_DEF).putInt(next).putInt(b.length).put(b);
+        return next;
+    }
+
+    private void putAscii(String s) {
+        for (int i = 0, len = s.length(); i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) { // fora do ASCII: codifica a string inteira (raro)
+                buf.put(s.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buf.put((byte) c);
+        }
+    }
+
+    private void putLong(long v) {
+        if (v == Long.MIN_VALUE) {
+            putAscii(Long.toString(v));
+            return;
+        }
+        if (v < 0) {
+            buf.put((byte) '-');
+            v = -v;
+        }
+        int i = digits.length;
+        do {
+            digits[--i] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        buf.put(digits, i, digits.length - i);
+    }
+
+    private void putDouble(double v) {
+        double a = Math.abs(v);
+        if (!(a < 1e12) || (a != 0 && a < 1e-6)) { // NaN, infinito, muito grande ou muito pequeno
+            putAscii(Double.toString(v));
+            return;
+        }
+        long scaled = Math.round(a * FRAC_SCALE);
+        if (v < 0 && scaled != 0) buf.put((byte) '-');
+        putLong(scaled / FRAC_SCALE);
+        buf.put((byte) '.');
+        long frac = scaled % FRAC_SCALE;
+        int width = 6;
+        while (width > 1 && frac % 10 == 0) { // sem zeros à direita, mas pelo menos um dígito
+            frac /= 10;
+            width--;
+        }
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + frac % 10);
+            frac /= 10;
+        }
+        buf.put(digits, 0, width);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.remaining() < bytes) drain();
+        if (buf.remaining() < bytes) throw new IOException("Linha de métrica grande demais: " + bytes + " bytes");
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            ch.close();
+        }
+    }
+
+    // Converte um arquivo binário no CSV de sempre; devolve o número de linhas
+    static long toCsv(Path bin, Path csv) throws IOException {
+        try (MetricsSink out = csv(csv)) {
+            return copy(bin, out);
+        }
+    }
+
+    // Reescreve as linhas de um arquivo binário em out (CSV ou binário), na mesma ordem
+    static long copy(Path bin, MetricsSink out) throws IOException {
+        ByteBuffer in;
+        try (FileChannel c = FileChannel.open(bin, StandardOpenOption.READ)) {
+            in = c.map(FileChannel.MapMode.READ_ONLY, 0, c.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (in.remaining() < 8 || in.getInt() != MAGIC) throw new IOException("Arquivo " + bin + " não é de métricas binárias");
+        int version = in.getInt();
+        if (version != VERSION) throw new IOException("Versão de métricas não suportada: " + version);
+        List<String> names = new ArrayList<>();
+        long rows = 0;
+        while (in.hasRemaining()) {
+            byte tag = in.get();
+            if (tag == REC_DEF) {
+                int id = in.getInt();
+                byte[] b = new byte[in.getInt()];
+                in.get(b);
+                if (id != names.size()) throw new IOException("Dicionário fora de ordem em " + bin);
+                names.add(new String(b, StandardCharsets.UTF_8));
+                continue;
+            }
+            if (tag != REC_LONG && tag != REC_DOUBLE) throw new IOException("Registro desconhecido em " + bin + ": " + tag);
+            int runId = in.getInt();
+            String type = names.get(in.getInt());
+            int m = in.getInt();
+            String hash = names.get(in.getInt());
+            int n = in.getInt();
+            String phase = names.get(in.getInt());
+            String metric = names.get(in.getInt());
+            if (tag == REC_LONG) {
+                out.row(runId, type, m, hash, n, phase, metric, in.getLong());
+            } else {
+                out.row(runId, type, m, hash, n, phase, metric, in.getDouble());
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String bin = null, out = null;
+        for (String a : args) {
+            if (a.startsWith("--to-csv=")) {
+                bin = a.substring("--to-csv=".length()).trim();
+            } else if (a.startsWith("--out=")) {
+                out = a.substring("--out=".length()).trim();
+            }
+        }
+        if (bin == null) {
+            System.err.println("Uso: hash.MetricsSink --to-csv=results/metrics.bin [--out=results/metrics.csv]");
+            return;
+        }
+        if (out == null) out = bin.endsWith(".bin") ? bin.substring(0, bin.length() - 4) + ".csv" : bin + ".csv";
+        long rows = toCsv(Path.of(bin), Path.of(out));
+        System.out.printf("%s: %d linhas%n", out, rows);
+    }
+}
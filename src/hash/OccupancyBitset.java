@@ -0,0 +1,151 @@
+package hash;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Um bit por bucket/posição ocupado, com a contagem mantida em set/clear.
+ * As tabelas mantêm o seu a cada inserção/remoção (uma palavra lida e escrita
+ * por mudança de estado de posição); `of` só remonta no load.
+ *
+ * gaps() calcula as estatísticas de gaps (posições vazias entre duas ocupadas
+ * consecutivas) palavra a palavra, saltando de bit ocupado em bit ocupado com
+ * Long.numberOfTrailingZeros: O(m/64 + ocupados) em vez de ler as m posições.
+ * Acima de PARALLEL_WORDS palavras, cada bloco é resolvido em paralelo
+ * (primeiro/último bit, mín/máx/soma dos gaps internos) e os blocos são juntados
+ * em ordem, com o gap entre o último de um e o primeiro do seguinte.
+ */
+final class OccupancyBitset {
+    private static final int PARALLEL_WORDS = 1 << 14; // 1M posições
+    private static final int CHUNK_WORDS = 1 << 12;
+
+    private final int bits;
+    private final long[] words;
+    private int count = 0;
+
+    OccupancyBitset(int bits) {
+        this.bits = bits;
+        this.words = new long[(bits + 63) >>> 6];
+    }
+
+    // Monta a partir das posições de uma tabela, em blocos de palavras paralelos (load)
+    static OccupancyBitset of(int bits, IntPredicate occupied) {
+        OccupancyBitset s = new OccupancyBitset(bits);
+        long[] w = s.words;
+        int chunks = (w.length + CHUNK_WORDS - 1) / CHUNK_WORDS;
+        s.count = IntStream.range(0, chunks).parallel().map(c -> {
+            int pop = 0;
+            int end = Math.min(w.length, (c + 1) * CHUNK_WORDS);
+            for (int k = c * CHUNK_WORDS; k < end; k++) {
+                long word = 0;
+                int base = k << 6, lim = Math.min(64, bits - base);
+                for (int j = 0; j < lim; j++) {
+                    if (occupied.test(base + j)) word |= 1L << j;
+                }
+                w[k] = word;
+                pop += Long.bitCount(word);
+            }
+            return pop;
+        }).sum();
+        return s;
+    }
+
+    void set(int i) {
+        long bit = 1L << i;
+        int k = i >>> 6;
+        if ((words[k] & bit) == 0) {
+            words[k] |= bit;
+            count++;
+        }
+    }
+
+    void clear(int i) {
+        long bit = 1L << i;
+        int k = i >>> 6;
+        if ((words[k] & bit) != 0) {
+            words[k] &= ~bit;
+            count--;
+        }
+    }
+
+    void clearAll() {
+        Arrays.fill(words, 0L);
+        count = 0;
+    }
+
+    boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    int count() { return count; }
+
+    long footprint() { return Footprint.array(words.length, 8); }
+
+    // Resumo de um trecho: primeiro e último bit e os gaps entre eles
+    static final class Gaps {
+        int first = -1, last = -1;
+        int min = Integer.MAX_VALUE, max = 0, count = 0;
+        long sum = 0;
+
+        int min() { return count == 0 ? 0 : min; }
+        int max() { return count == 0 ? 0 : max; }
+        double avg() { return count == 0 ? 0 : (double) sum / count; }
+
+        private void gap(int g) {
+            if (g < min) min = g;
+            if (g > max) max = g;
+            sum += g;
+            count++;
+        }
+
+        // this seguido de o (o começa depois de this terminar)
+        private Gaps then(Gaps o) {
+            if (o.first < 0) return this;
+            if (first < 0) return o;
+            gap(o.first - last - 1);
+            if (o.count > 0) {
+                min = Math.min(min, o.min);
+                max = Math.max(max, o.max);
+                sum += o.sum;
+                count += o.count;
+            }
+            last = o.last;
+            return this;
+        }
+    }
+
+    // circular: conta também o gap que dá a volta, da última posição ocupada até a primeira
+    Gaps gaps(boolean circular) {
+        Gaps g;
+        if (words.length < PARALLEL_WORDS) {
+            g = scan(0, words.length);
+        } else {
+            int chunks = (words.length + CHUNK_WORDS - 1) / CHUNK_WORDS;
+            Gaps[] parts = new Gaps[chunks];
+            IntStream.range(0, chunks).parallel().forEach(c ->
+                    parts[c] = scan(c * CHUNK_WORDS, Math.min(words.length, (c + 1) * CHUNK_WORDS)));
+            g = parts[0];
+            for (int c = 1; c < chunks; c++) g = g.then(parts[c]);
+        }
+        if (circular && g.first >= 0 && g.first != g.last) g.gap((bits - 1 - g.last) + g.first);
+        return g;
+    }
+
+    private Gaps scan(int fromWord, int toWord) {
+        Gaps g = new Gaps();
+        int prev = -1;
+        for (int k = fromWord; k < toWord; k++) {
+            long word = words[k];
+            while (word != 0) {
+                int i = (k << 6) + Long.numberOfTrailingZeros(word);
+                if (prev < 0) g.first = i;
+                else g.gap(i - prev - 1);
+                prev = i;
+                word &= word - 1;
+            }
+        }
+        g.last = prev;
+        return g;
+    }
+}
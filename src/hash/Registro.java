@@ -0,0 +1,54 @@
+package hash;
+
+public class Registro {
+    // Armazena o código como int para economizar memória.
+    // Formatação para 9 dígitos fica a cargo da saída.
+    private final int codigo;
+
+    public static final int CODIGO_MIN = 0;
+    public static final int CODIGO_MAX = 999_999_999;
+    public static final int DIGITOS = 9;
+
+    public Registro(int codigo) {
+        this.codigo = validate(codigo);
+    }
+
+    // Mesma regra do construtor, sem criar o objeto (usado na ingestão chave a chave)
+    public static boolean codigoValido(int codigo) {
+        return codigo >= CODIGO_MIN && codigo <= CODIGO_MAX;
+    }
+
+    // Devolve o próprio código se válido; senão a mesma exceção do construtor
+    public static int validate(int codigo) {
+        if (!codigoValido(codigo)) {
+            throw new IllegalArgumentException("Código deve ter até 9 dígitos (0..999999999)");
+        }
+        return codigo;
+    }
+
+    // Escreve exatamente DIGITOS dígitos ASCII, com zeros à esquerda, em buf[off..off+9).
+    // Não confere o código: quem chama já o validou (construtor, ou codigoValido no CodeExporter)
+    public static void formatInto(int codigo, byte[] buf, int off) {
+        for (int i = off + DIGITOS - 1; i >= off; i--) {
+            buf[i] = (byte) ('0' + codigo % 10);
+            codigo /= 10;
+        }
+    }
+
+    public static void formatInto(int codigo, char[] buf, int off) {
+        for (int i = off + DIGITOS - 1; i >= off; i--) {
+            buf[i] = (char) ('0' + codigo % 10);
+            codigo /= 10;
+        }
+    }
+
+    public int getCodigo() {
+        return codigo;
+    }
+
+    public String codigoFormatado() {
+        char[] buf = new char[DIGITOS];
+        formatInto(codigo, buf, 0);
+        return new String(buf);
+    }
+}
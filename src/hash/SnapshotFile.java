@@ -0,0 +1,180 @@
+package hash;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binário versionado dos save/load das tabelas (little-endian):
+ *
+ *   int MAGIC, int VERSION, int tipo da tabela, int m, int id da hash
+ *   int nEscalares, long[nEscalares]            (contadores e parâmetros)
+ *   int nSeções, e para cada seção:
+ *     int tipo (SECTION_INT / SECTION_BYTE), int comprimento, dados (alinhados a 4 bytes)
+ *
+ * As seções são os vetores internos da tabela copiados como estão. O load mapeia
+ * o arquivo (FileChannel.map) e copia cada seção em bloco para o vetor novo, sem
+ * reinserir chave nenhuma.
+ */
+final class SnapshotFile {
+    static final int MAGIC = 0x504E5348; // "HSNP"
+    static final int VERSION = 1;
+
+    // tipo da tabela no cabeçalho
+    static final int CHAINING = 1, LINEAR = 2, DOUBLE = 3, ROBIN = 4, SWISS = 5, CUCKOO = 6;
+
+    private static final int SECTION_INT = 0, SECTION_BYTE = 1;
+
+    private SnapshotFile() {}
+
+    static final class Writer {
+        private final int type, m;
+        private final HashStrategy h;
+        private final List<Long> scalars = new ArrayList<>();
+        private final List<Section> sections = new ArrayList<>();
+
+        // ints em blocos de 1 << shift posições (shift 31 = um vetor só), ou bytes
+        private static final class Section {
+            final int[][] segs; final int shift; final byte[] bytes; final int len;
+            Section(int[][] segs, int shift, byte[] bytes, int len) {
+                this.segs = segs; this.shift = shift; this.bytes = bytes; this.len = len;
+            }
+            long dataBytes() { return bytes != null ? len : len * 4L; }
+        }
+
+        Writer(int type, int m, HashStrategy h) {
+            this.type = type;
+            this.m = m;
+            this.h = h;
+        }
+
+        Writer scalar(long v) { scalars.add(v); return this; }
+        Writer scalar(double v) { return scalar(Double.doubleToRawLongBits(v)); }
+
+        Writer ints(int[] a, int len) {
+            return segments(new int[][]{a}, 31, len);
+        }
+
+        // Vetor segmentado (como os pools de nós): as len primeiras posições
+        Writer segments(int[][] segs, int shift, int len) {
+            sections.add(new Section(segs, shift, null, len));
+            return this;
+        }
+
+        Writer bytes(byte[] a) {
+            sections.add(new Section(null, 0, a, a.length));
+            return this;
+        }
+
+        void write(Path file) throws IOException {
+            long total = 6 * 4 + scalars.size() * 8L + 4;
+            for (Section s : sections) total += 8 + ((s.dataBytes() + 3) & ~3L);
+            if (total > Integer.MAX_VALUE) throw new IOException("Snapshot grande demais para um mapeamento: " + total + " bytes");
+
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, total);
+                buf.order(ByteOrder.LITTLE_ENDIAN);
+                buf.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(m).putInt(h.id());
+                buf.putInt(scalars.size());
+                for (long v : scalars) buf.putLong(v);
+                buf.putInt(sections.size());
+                for (Section s : sections) {
+                    if (s.bytes != null) {
+                        buf.putInt(SECTION_BYTE).putInt(s.len);
+                        buf.put(s.bytes, 0, s.len);
+                        while ((buf.position() & 3) != 0) buf.put((byte) 0);
+                    } else {
+                        buf.putInt(SECTION_INT).putInt(s.len);
+                        IntBuffer ib = buf.asIntBuffer();
+                        long segSize = 1L << s.shift;
+                        for (long off = 0; off < s.len; off += segSize) {
+                            ib.put(s.segs[(int) (off >>> s.shift)], 0, (int) Math.min(segSize, s.len - off));
+                        }
+                        buf.position(buf.position() + s.len * 4);
+                    }
+                }
+                buf.force();
+            }
+        }
+    }
+
+    static final class Reader {
+        final int m;
+        final HashStrategy hash;
+        private final MappedByteBuffer buf;
+        private final long[] scalars;
+        private int nextScalar = 0;
+        private int sectionsLeft;
+
+        private Reader(Path file, int expectedType) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (ch.size() > Integer.MAX_VALUE) throw new IOException("Snapshot grande demais: " + file);
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.remaining() < 24 || buf.getInt() != MAGIC) throw new IOException("Arquivo " + file + " não é um snapshot de tabela");
+            int version = buf.getInt();
+            if (version != VERSION) throw new IOException("Versão de snapshot não suportada: " + version);
+            int type = buf.getInt();
+            if (type != expectedType) throw new IOException("Snapshot de outro tipo de tabela (" + type + ", esperado " + expectedType + ")");
+            m = buf.getInt();
+            hash = HashStrategy.fromId(buf.getInt());
+            scalars = new long[buf.getInt()];
+            for (int i = 0; i < scalars.length; i++) scalars[i] = buf.getLong();
+            sectionsLeft = buf.getInt();
+        }
+
+        static Reader open(Path file, int expectedType) throws IOException {
+            return new Reader(file, expectedType);
+        }
+
+        long scalar() { return scalars[nextScalar++]; }
+        int scalarInt() { return (int) scalar(); }
+        double scalarDouble() { return Double.longBitsToDouble(scalar()); }
+
+        private int section(int kind) throws IOException {
+            if (sectionsLeft-- == 0) throw new IOException("Snapshot truncado: faltam seções");
+            int k = buf.getInt();
+            if (k != kind) throw new IOException("Seção inesperada no snapshot");
+            return buf.getInt();
+        }
+
+        int[] ints() throws IOException {
+            int len = section(SECTION_INT);
+            int[] a = new int[len];
+            buf.asIntBuffer().get(a);
+            buf.position(buf.position() + len * 4);
+            return a;
+        }
+
+        // Lê uma seção de ints em blocos de 1 << shift (o último só até len)
+        int[][] segments(int shift, int minSegs) throws IOException {
+            int len = section(SECTION_INT);
+            int segSize = 1 << shift;
+            int count = (len + segSize - 1) >>> shift;
+            int[][] segs = new int[Math.max(minSegs, count)][];
+            IntBuffer ib = buf.asIntBuffer();
+            for (int k = 0; k < count; k++) {
+                segs[k] = new int[segSize];
+                ib.get(segs[k], 0, Math.min(segSize, len - (k << shift)));
+            }
+            buf.position(buf.position() + len * 4);
+            return segs;
+        }
+
+        byte[] bytes() throws IOException {
+            int len = section(SECTION_BYTE);
+            byte[] a = new byte[len];
+            buf.get(a);
+            buf.position((buf.position() + 3) & ~3);
+            return a;
+        }
+    }
+}
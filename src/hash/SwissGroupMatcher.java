@@ -0,0 +1,16 @@
+package hash;
+
+/**
+ * Casamento de um grupo de 16 bytes de controle do HashTableSwiss.
+ * Cada método devolve uma máscara de 16 bits: bit i ligado = byte base + i casou.
+ */
+interface SwissGroupMatcher {
+    // bytes iguais a h2 (pode ter falso positivo; a chave é sempre conferida)
+    int match(byte[] ctrl, int base, byte h2);
+
+    // bytes EMPTY (exato: é o que encerra a busca)
+    int matchEmpty(byte[] ctrl, int base);
+
+    // bytes EMPTY ou DELETED (bit alto ligado)
+    int matchFree(byte[] ctrl, int base);
+}
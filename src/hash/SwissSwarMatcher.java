@@ -0,0 +1,44 @@
+package hash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/** SWAR: lê o grupo como dois longs e compara os 8 bytes de cada um de uma vez. */
+final class SwissSwarMatcher implements SwissGroupMatcher {
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+
+    @Override
+    public int match(byte[] ctrl, int base, byte h2) {
+        long pattern = LSBS * (h2 & 0xFF);
+        return gather(zeroBytes((long) LONGS.get(ctrl, base) ^ pattern))
+             | gather(zeroBytes((long) LONGS.get(ctrl, base + 8) ^ pattern)) << 8;
+    }
+
+    @Override
+    public int matchEmpty(byte[] ctrl, int base) {
+        // EMPTY = 0x80 e DELETED = 0xFE: só EMPTY tem o bit alto ligado e o bit 1 desligado
+        long lo = (long) LONGS.get(ctrl, base);
+        long hi = (long) LONGS.get(ctrl, base + 8);
+        return gather(lo & ~(lo << 6) & MSBS) | gather(hi & ~(hi << 6) & MSBS) << 8;
+    }
+
+    @Override
+    public int matchFree(byte[] ctrl, int base) {
+        return gather((long) LONGS.get(ctrl, base) & MSBS)
+             | gather((long) LONGS.get(ctrl, base + 8) & MSBS) << 8;
+    }
+
+    // bit alto de cada byte zero de x (clássico "haszero")
+    private static long zeroBytes(long x) {
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    // junta os bits altos dos 8 bytes em 8 bits consecutivos
+    private static int gather(long msbs) {
+        return (int) (((msbs >>> 7) * 0x0102040810204080L) >>> 56);
+    }
+}
@@ -0,0 +1,29 @@
+package hash;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Casamento com a Vector API (16 bytes = uma comparação de 128 bits).
+ * Só é carregada quando o módulo jdk.incubator.vector está presente
+ * (java --add-modules jdk.incubator.vector ...); senão vale o SwissSwarMatcher.
+ */
+final class SwissVectorMatcher implements SwissGroupMatcher {
+    private static final VectorSpecies<Byte> S = ByteVector.SPECIES_128;
+
+    @Override
+    public int match(byte[] ctrl, int base, byte h2) {
+        return (int) ByteVector.fromArray(S, ctrl, base).eq(h2).toLong();
+    }
+
+    @Override
+    public int matchEmpty(byte[] ctrl, int base) {
+        return (int) ByteVector.fromArray(S, ctrl, base).eq(HashTableSwiss.EMPTY).toLong();
+    }
+
+    @Override
+    public int matchFree(byte[] ctrl, int base) {
+        return (int) ByteVector.fromArray(S, ctrl, base).compare(VectorOperators.LT, (byte) 0).toLong();
+    }
+}